@@ -0,0 +1,66 @@
+package TheaterReservationSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Helper to build theaters of different shapes and fill levels for the benchmarks.
+ */
+final class BenchmarkTheaters {
+
+  /**
+   * one in every ten rows is wheelchair accessible, like rows 6 and 10 in the Roxy
+   */
+  private static final int WHEELCHAIR_ROW_SPACING = 10;
+  private static final int FIRST_WHEELCHAIR_ROW = 6;
+  private static final String FILLER = "Filler";
+
+  private BenchmarkTheaters() {
+  }
+
+  /**
+   * Builds an empty theater.
+   * @param totalRows number of rows
+   * @param seatsInARow number of seats in each row
+   * @return the theater
+   * @throws NoAccessibleRowsException never, the theater always gets a wheelchair row
+   */
+  static Theater create(int totalRows, int seatsInARow) throws NoAccessibleRowsException {
+    return new Theater("Bench", totalRows, seatsInARow, wheelchairRows(totalRows));
+  }
+
+  /**
+   * Lists the wheelchair accessible rows of a theater with the given number of rows.
+   * @param totalRows number of rows
+   * @return wheelchair row numbers
+   */
+  static List<Integer> wheelchairRows(int totalRows) {
+    List<Integer> wheelchairRows = new ArrayList<>();
+    for (int i = FIRST_WHEELCHAIR_ROW; i <= totalRows; i += WHEELCHAIR_ROW_SPACING) {
+      wheelchairRows.add(i);
+    }
+    if (wheelchairRows.isEmpty()) {
+      wheelchairRows.add(totalRows);
+    }
+    return wheelchairRows;
+  }
+
+  /**
+   * Reserves randomly chosen single seats until roughly the given share of the theater is taken.
+   * Picking single seats leaves the free seats fragmented, like a hall after a busy sales day.
+   * @param theater the theater to fill
+   * @param fillRatio share of seats to reserve, from 0 to 1
+   * @param seed seed of the random generator, so every run fills the same seats
+   */
+  static void fill(Theater theater, double fillRatio, long seed) {
+    Random random = new Random(seed);
+    for (Row row : theater.getRows()) {
+      for (Seat seat : row) {
+        if (random.nextDouble() < fillRatio) {
+          seat.reserve(FILLER);
+        }
+      }
+    }
+  }
+}
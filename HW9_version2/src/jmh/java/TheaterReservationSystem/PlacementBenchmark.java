@@ -0,0 +1,102 @@
+package TheaterReservationSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the placement strategies on a hall that stays full: every operation either cancels a
+ * random booking or books a party of 1 to 6, so the hall fills up and then keeps turning over
+ * like a theater in the week before a show. The time per operation shows what each strategy costs
+ * per booking, and the Fill counters show how many of the requested seats each strategy could
+ * still place once cancellations had left gaps behind.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+  private static final int LARGEST_PARTY = 6;
+  private static final long SEED = 42;
+
+  @Param({"FIRST_FIT", "BEST_FIT", "CENTER_OF_ROW"})
+  public StandardPlacement strategy;
+
+  @Param({"200", "2000"})
+  public int totalRows;
+
+  @Param({"10", "26", "120"})
+  public int seatsInARow;
+
+  @Param({"0.3"})
+  public double cancelRatio;
+
+  private Theater theater;
+  private ReservationService reservationService;
+  private final List<ReservationResult> bookings = new ArrayList<>();
+  private SplittableRandom random;
+
+  /**
+   * Seats requested and seats placed in one iteration. A strategy that fragments the hall less
+   * places a larger share of the requested seats.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Fill {
+    public long seatsRequested;
+    public long seatsPlaced;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      seatsRequested = 0;
+      seatsPlaced = 0;
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void setUp() throws NoAccessibleRowsException {
+    theater = BenchmarkTheaters.create(totalRows, seatsInARow);
+    reservationService = new ReservationService(theater);
+    reservationService.setPlacementStrategy(strategy);
+    bookings.clear();
+    random = new SplittableRandom(SEED);
+  }
+
+  @Benchmark
+  public ReservationResult bookAndCancel(Fill fill) {
+    if (!bookings.isEmpty() && random.nextDouble() < cancelRatio) {
+      // swap the last booking into the cancelled one's slot, so cancelling costs the same at any size
+      int index = random.nextInt(bookings.size());
+      ReservationResult cancelled = bookings.get(index);
+      bookings.set(index, bookings.get(bookings.size() - 1));
+      bookings.remove(bookings.size() - 1);
+      reservationService.release(cancelled);
+      return cancelled;
+    }
+    int partySize = 1 + random.nextInt(LARGEST_PARTY);
+    ReservationResult result = reservationService.reserve(theater, partySize, "Bench", false);
+    fill.seatsRequested += partySize;
+    if (result.isReserved()) {
+      fill.seatsPlaced += partySize;
+      bookings.add(result);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,64 @@
+package TheaterReservationSystem;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the booking hot path: finding the best row and reserving a block of seats, on theaters
+ * from the 15 x 10 Roxy up to thousands of rows at different fill levels. Every successful
+ * reservation is released again, so the fill level stays the same for the whole run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationBenchmark {
+
+  @Param({"15", "200", "2000", "5000"})
+  public int totalRows;
+
+  @Param({"10", "26", "120"})
+  public int seatsInARow;
+
+  @Param({"0.0", "0.5", "0.9", "0.99"})
+  public double fillRatio;
+
+  @Param({"2", "6"})
+  public int partySize;
+
+  private Theater theater;
+  private ReservationService reservationService;
+
+  @Setup
+  public void setUp() throws NoAccessibleRowsException {
+    theater = BenchmarkTheaters.create(totalRows, seatsInARow);
+    BenchmarkTheaters.fill(theater, fillRatio, totalRows);
+    reservationService = new ReservationService(theater);
+  }
+
+  @Benchmark
+  public ReservationResult reserveSeats() {
+    ReservationResult result = reservationService.reserve(theater, partySize, "Bench", false);
+    if (result.isReserved()) {
+      result.getRow().releaseSeats(result.getFirstSeat(), partySize);
+    }
+    return result;
+  }
+
+  @Benchmark
+  public Row findBestRow() {
+    return theater.findBestRow(partySize, false);
+  }
+}
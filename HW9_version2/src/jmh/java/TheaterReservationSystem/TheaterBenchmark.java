@@ -0,0 +1,66 @@
+package TheaterReservationSystem;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building a theater and rendering its seat map, from the 15 x 10 Roxy up to thousands
+ * of rows. The seat map is cached per row, so render shows the cost of an unchanged theater and
+ * renderAfterChange the cost after one seat changed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TheaterBenchmark {
+
+  @Param({"15", "200", "2000", "5000"})
+  public int totalRows;
+
+  @Param({"10", "26", "120"})
+  public int seatsInARow;
+
+  private List<Integer> wheelchairRows;
+  private Theater halfFullTheater;
+
+  @Setup
+  public void setUp() throws NoAccessibleRowsException {
+    wheelchairRows = BenchmarkTheaters.wheelchairRows(totalRows);
+    halfFullTheater = BenchmarkTheaters.create(totalRows, seatsInARow);
+    BenchmarkTheaters.fill(halfFullTheater, 0.5, totalRows);
+  }
+
+  @Benchmark
+  public Theater construct() throws NoAccessibleRowsException {
+    return new Theater("Bench", totalRows, seatsInARow, wheelchairRows);
+  }
+
+  @Benchmark
+  public String render() {
+    return halfFullTheater.toString();
+  }
+
+  @Benchmark
+  public String renderAfterChange() {
+    Seat seat = halfFullTheater.getRows().get(totalRows / 2).get(0);
+    if (seat.isReserved()) {
+      seat.notReserved();
+    } else {
+      seat.reserve("Bench");
+    }
+    return halfFullTheater.toString();
+  }
+}
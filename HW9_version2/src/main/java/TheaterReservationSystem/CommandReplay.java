@@ -0,0 +1,274 @@
+package TheaterReservationSystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CommandReplay runs a recorded file of console input, as fast as possible, for regression and
+ * capacity tests. The file holds exactly what a user would type: a command per line, and after
+ * "reserve &lt;n&gt;" a line with the name and a line answering the wheelchair question with yes or no.
+ * Replay stops at "done" or at the end of the file.
+ *
+ * Lines are understood exactly as the console understands them: a line is a command if it
+ * contains the command's word, checked in the order reserve, show, done, help, and the number of
+ * seats is the second word of the line. A blank line is an invalid command, and a reservation
+ * no row has enough seats together for is turned away before the name is asked. Every answer the
+ * console would print goes to the transcript.
+ *
+ * The file is streamed through one large buffer and parsed byte by byte: commands are matched
+ * against their ASCII bytes ignoring case and seat numbers are read digit by digit, so the only
+ * allocation per reservation is the party name.
+ */
+public class CommandReplay {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte LINE_FEED = '\n';
+    private static final byte[] COMMAND_RESERVE = bytes("reserve");
+    private static final byte[] COMMAND_SHOW = bytes("show");
+    private static final byte[] COMMAND_DONE = bytes("done");
+    private static final byte[] COMMAND_HELP = bytes("help");
+    private static final byte[] ANSWER_YES = bytes("yes");
+    private static final byte[] ANSWER_NO = bytes("no");
+    private static final int NOT_A_NUMBER = -1;
+    private static final int DECIMAL = 10;
+    private static final byte CASE_BIT = 0x20;
+
+    /**
+     * the question the replayed user is answering
+     */
+    private enum State {
+        COMMAND, NAME, WHEELCHAIR, DONE
+    }
+
+    private final Theater theater;
+    private final ReservationService reservationService;
+    private final OutputStream transcript;
+    private State state = State.COMMAND;
+    private int pendingSeats;
+    private String pendingName;
+    private long commands;
+    private long reserved;
+    private long rejected;
+    private long invalid;
+
+    private CommandReplay(Theater theater, ReservationService reservationService, OutputStream transcript) {
+        this.theater = theater;
+        this.reservationService = reservationService;
+        this.transcript = transcript;
+    }
+
+    /**
+     * Replays a command file against a theater.
+     *
+     * @param path               The command file.
+     * @param theater            The theater to book.
+     * @param reservationService The service handling reservations for the theater.
+     * @param transcript         Where to write the answers to the replayed commands, or null to
+     *                           only count them.
+     * @return The report of the run.
+     * @throws IOException if the file cannot be read or the transcript cannot be written.
+     */
+    public static ReplayReport replay(Path path, Theater theater, ReservationService reservationService,
+                                      OutputStream transcript) throws IOException {
+        CommandReplay replay = new CommandReplay(theater, reservationService, transcript);
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            replay.run(channel);
+        }
+        return new ReplayReport(replay.commands, replay.reserved, replay.rejected, replay.invalid,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Reads the file a buffer at a time and executes every complete line. The tail of a buffer
+     * that does not end a line yet is moved to the front before reading on; a line longer than
+     * the whole buffer is executed in pieces.
+     */
+    private void run(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        boolean endOfFile = false;
+        while (!endOfFile && state != State.DONE) {
+            endOfFile = channel.read(buffer) < 0;
+            int limit = buffer.position();
+            int lineStart = 0;
+            for (int i = 0; i < limit && state != State.DONE; i++) {
+                if (bytes[i] == LINE_FEED) {
+                    execute(bytes, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (state != State.DONE && lineStart < limit && (endOfFile || (lineStart == 0 && limit == bytes.length))) {
+                execute(bytes, lineStart, limit);
+                lineStart = limit;
+            }
+            System.arraycopy(bytes, lineStart, bytes, 0, limit - lineStart);
+            buffer.position(limit - lineStart);
+        }
+    }
+
+    /**
+     * Executes one line, bytes start (inclusive) to end (exclusive) without the line feed.
+     */
+    private void execute(byte[] bytes, int start, int end) throws IOException {
+        while (start < end && isSpace(bytes[start])) {
+            start++;
+        }
+        while (end > start && isSpace(bytes[end - 1])) {
+            end--;
+        }
+        commands++;
+        switch (state) {
+            case COMMAND:
+                executeCommand(bytes, start, end);
+                break;
+            case NAME:
+                pendingName = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+                state = State.WHEELCHAIR;
+                break;
+            case WHEELCHAIR:
+                executeWheelchairAnswer(bytes, start, end);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void executeCommand(byte[] bytes, int start, int end) throws IOException {
+        if (contains(bytes, start, end, COMMAND_RESERVE)) {
+            int numSeats = parseNumber(bytes, wordEnd(bytes, start, end), end);
+            if (!reservationService.isValidSeatNumber(numSeats)) {
+                invalid++;
+                write("Please enter a valid seat number to reserve");
+            } else if (!reservationService.hasSeatsTogether(theater, numSeats)) {
+                rejected++;
+                write("Sorry, we don’t have that many seats together for you.");
+            } else {
+                pendingSeats = numSeats;
+                state = State.NAME;
+            }
+        } else if (contains(bytes, start, end, COMMAND_SHOW)) {
+            if (transcript != null) {
+                theater.writeSeatMap(transcript);
+            }
+        } else if (contains(bytes, start, end, COMMAND_DONE)) {
+            state = State.DONE;
+        } else if (contains(bytes, start, end, COMMAND_HELP)) {
+            if (transcript != null) {
+                write(String.join("\n", ReservationView.helpLines(theater)));
+            }
+        } else {
+            invalid++;
+            write("Please enter a valid command. To get command guidance, please enter 'help' in console");
+        }
+    }
+
+    private void executeWheelchairAnswer(byte[] bytes, int start, int end) throws IOException {
+        boolean yes = end - start == ANSWER_YES.length && startsWith(bytes, start, end, ANSWER_YES);
+        boolean no = end - start == ANSWER_NO.length && startsWith(bytes, start, end, ANSWER_NO);
+        if (!yes && !no) {
+            invalid++;
+            write("Invalid input. Please answer with 'yes' or 'no'.");
+            return;
+        }
+        ReservationResult result = reservationService.reserve(theater, pendingSeats, pendingName, yes);
+        if (result.isReserved()) {
+            reserved++;
+        } else {
+            rejected++;
+        }
+        if (transcript != null) {
+            write(result.getMessage());
+        }
+        pendingName = null;
+        state = State.COMMAND;
+    }
+
+    private void write(String line) throws IOException {
+        if (transcript != null) {
+            transcript.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Checks if the line starts with the given lower-case ASCII word, ignoring case.
+     */
+    private static boolean startsWith(byte[] bytes, int start, int end, byte[] word) {
+        if (end - start < word.length) {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++) {
+            if ((bytes[start + i] | CASE_BIT) != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the line contains the given lower-case ASCII word anywhere, ignoring case, like the
+     * console's String.contains on the lower-cased line.
+     */
+    private static boolean contains(byte[] bytes, int start, int end, byte[] word) {
+        for (int i = start; i <= end - word.length; i++) {
+            if (startsWith(bytes, i, end, word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the end of the first word of a line that starts with a word.
+     * @return index of the first space after the word, or end
+     */
+    private static int wordEnd(byte[] bytes, int start, int end) {
+        while (start < end && !isSpace(bytes[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Reads the word after the first one as a number, like the console's Integer.parseInt of the
+     * second word of the line: the spaces in front of it are skipped and it ends at the next space.
+     * @return the number, or NOT_A_NUMBER if there is no second word or it is not a number
+     */
+    private static int parseNumber(byte[] bytes, int start, int end) {
+        while (start < end && isSpace(bytes[start])) {
+            start++;
+        }
+        end = wordEnd(bytes, start, end);
+        if (start < end && bytes[start] == '+') {
+            start++;
+        }
+        if (start == end) {
+            return NOT_A_NUMBER;
+        }
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit >= DECIMAL || number > Integer.MAX_VALUE) {
+                return NOT_A_NUMBER;
+            }
+            number = number * DECIMAL + digit;
+        }
+        return number > Integer.MAX_VALUE ? NOT_A_NUMBER : (int) number;
+    }
+
+    /**
+     * Checks for the whitespace the console splits words on.
+     */
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    private static byte[] bytes(String word) {
+        return word.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,34 @@
+package TheaterReservationSystem;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HeapOccupancyStore keeps the occupancy words in memory, private to this process.
+ */
+public class HeapOccupancyStore implements OccupancyStore {
+
+  private final AtomicLongArray words;
+
+  /**
+   * Constructs a new HeapOccupancyStore with every seat free.
+   * @param size number of words
+   */
+  public HeapOccupancyStore(int size) {
+    this.words = new AtomicLongArray(size);
+  }
+
+  @Override
+  public long getWord(int index) {
+    return words.get(index);
+  }
+
+  @Override
+  public boolean compareAndSetWord(int index, long expected, long updated) {
+    return words.compareAndSet(index, expected, updated);
+  }
+
+  @Override
+  public int size() {
+    return words.length();
+  }
+}
@@ -0,0 +1,148 @@
+package TheaterReservationSystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HoldWheel is a hashed timing wheel keeping track of when seat holds expire. Time is cut into
+ * ticks, and a hold goes into the bucket of the tick its deadline falls in, modulo the number of
+ * buckets. Adding and removing a hold are O(1) linked-list operations. Advancing the wheel visits
+ * one bucket per tick that passed and expires the holds whose deadline tick has come; holds due
+ * in a later turn of the wheel stay where they are. Expiring a hold therefore costs O(1), no
+ * matter how many holds are outstanding, and nothing runs per hold: whoever advances the wheel
+ * does the work. Callers within the same tick find nothing to do without taking the lock.
+ */
+final class HoldWheel {
+
+    private final SeatHold[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long startNanos;
+    /**
+     * the last tick whose bucket was expired
+     */
+    private long currentTick;
+    /**
+     * System.nanoTime() at which the tick after currentTick starts, read without the lock
+     */
+    private volatile long nextTickNanos;
+    private int size;
+
+    /**
+     * Constructs a new empty HoldWheel.
+     * @param numBuckets number of buckets, rounded up to a power of two
+     * @param tickNanos  length of a tick in nanoseconds, the precision of expiry
+     * @param startNanos System.nanoTime() at tick 0
+     */
+    HoldWheel(int numBuckets, long tickNanos, long startNanos) {
+        int bucketCount = Integer.highestOneBit(Math.max(numBuckets, 1) * 2 - 1);
+        this.buckets = new SeatHold[bucketCount];
+        this.mask = bucketCount - 1;
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+        this.nextTickNanos = startNanos + tickNanos;
+    }
+
+    /**
+     * Adds a hold to expire at its deadline, or at the next tick if the deadline has passed.
+     * @param hold a hold not in the wheel yet
+     */
+    synchronized void add(SeatHold hold) {
+        long deadlineTick = Math.floorDiv(hold.getDeadlineNanos() - startNanos + tickNanos - 1, tickNanos);
+        hold.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+        int bucket = (int) (hold.deadlineTick & mask);
+        hold.previous = null;
+        hold.next = buckets[bucket];
+        if (buckets[bucket] != null) {
+            buckets[bucket].previous = hold;
+        }
+        buckets[bucket] = hold;
+        size++;
+    }
+
+    /**
+     * Removes a hold that was confirmed or released before it expired.
+     * @param hold a hold added to this wheel
+     */
+    synchronized void remove(SeatHold hold) {
+        int bucket = (int) (hold.deadlineTick & mask);
+        if (hold.previous == null && buckets[bucket] != hold) {
+            return;  // expired or removed already
+        }
+        unlink(hold, bucket);
+    }
+
+    /**
+     * Advances the wheel to the given time and takes out every hold whose deadline has passed.
+     * After a pause longer than a whole turn, each bucket is visited once instead of once per
+     * tick that passed.
+     * @param nowNanos System.nanoTime() now
+     * @return the expired holds, the caller frees their seats; an empty list if none expired
+     */
+    List<SeatHold> expire(long nowNanos) {
+        if (nowNanos - nextTickNanos < 0) {
+            return Collections.emptyList();  // still in the tick that was expired last
+        }
+        return advance(nowNanos);
+    }
+
+    private synchronized List<SeatHold> advance(long nowNanos) {
+        long nowTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+        List<SeatHold> expired = Collections.emptyList();
+        if (nowTick - currentTick > mask) {
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                expired = expireBucket(bucket, nowTick, expired);
+            }
+        } else {
+            for (long tick = currentTick + 1; tick <= nowTick; tick++) {
+                expired = expireBucket((int) (tick & mask), tick, expired);
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        nextTickNanos = startNanos + (currentTick + 1) * tickNanos;
+        return expired;
+    }
+
+    /**
+     * Getter for the number of holds waiting to expire
+     * @return number of holds as int
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Takes the holds due by the given tick out of a bucket.
+     * @return the list of expired holds, created on the first hold that expires
+     */
+    private List<SeatHold> expireBucket(int bucket, long tick, List<SeatHold> expired) {
+        SeatHold hold = buckets[bucket];
+        while (hold != null) {
+            SeatHold next = hold.next;
+            if (hold.deadlineTick <= tick) {
+                unlink(hold, bucket);
+                if (expired.isEmpty()) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(hold);
+            }
+            hold = next;
+        }
+        return expired;
+    }
+
+    private void unlink(SeatHold hold, int bucket) {
+        if (hold.previous != null) {
+            hold.previous.next = hold.next;
+        } else {
+            buckets[bucket] = hold.next;
+        }
+        if (hold.next != null) {
+            hold.next.previous = hold.previous;
+        }
+        hold.previous = null;
+        hold.next = null;
+        size--;
+    }
+}
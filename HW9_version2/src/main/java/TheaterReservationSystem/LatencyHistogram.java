@@ -0,0 +1,201 @@
+package TheaterReservationSystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram counts latencies in buckets laid out like an HdrHistogram: values below 128
+ * get a bucket each, and every power of two above that is split into 64 equal buckets. Any value
+ * therefore lands in a bucket less than 1/64 (about 1.6%) wider than the value itself, so high
+ * percentiles stay accurate from nanoseconds to hours in a fixed 30 KB of counters per stripe.
+ * Recording is a few atomic increments, so threads can record into the same histogram; a
+ * histogram shared by many threads can be striped, so threads mostly increment their own copy of
+ * the counters and only readers add the stripes up. There are at most 8 stripes, and a stripe's
+ * counters are only allocated once a thread records into it.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_HALF_BITS;
+    private static final int HIGHEST_BIT = Long.SIZE - 1;
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+    private static final double PERCENT = 100.0;
+    private static final int MAX_STRIPES = 8;
+
+    /**
+     * bucket counters of every stripe, null until the stripe records its first value
+     */
+    private final AtomicReferenceArray<AtomicLongArray> stripeCounts;
+    private final int stripeMask;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Constructs a new LatencyHistogram with one set of counters, for values recorded by one
+     * thread or by a few.
+     */
+    public LatencyHistogram() {
+        this(1);
+    }
+
+    /**
+     * Constructs a new LatencyHistogram with its counters striped, for values recorded by many
+     * threads at once.
+     *
+     * @param stripes Number of copies of the counters, rounded up to a power of two and at most 8.
+     */
+    public LatencyHistogram(int stripes) {
+        int stripeCount = Integer.highestOneBit(Math.min(Math.max(stripes, 1), MAX_STRIPES) * 2 - 1);
+        this.stripeCounts = new AtomicReferenceArray<>(stripeCount);
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Records one value.
+     *
+     * @param value The value, for example a latency in nanoseconds; negative values count as 0.
+     */
+    public void record(long value) {
+        long recorded = Math.max(value, 0);
+        counts((int) Thread.currentThread().getId() & stripeMask).incrementAndGet(bucketIndex(recorded));
+        totalCount.increment();
+        totalValue.add(recorded);
+        if (recorded > maxValue.get()) {
+            maxValue.accumulateAndGet(recorded, Math::max);
+        }
+    }
+
+    /**
+     * Adds every value recorded in another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        AtomicLongArray counts = counts(0);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.getBucketCount(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.getCount());
+        totalValue.add(other.totalValue.sum());
+        maxValue.accumulateAndGet(other.getMax(), Math::max);
+    }
+
+    /**
+     * Getter for the number of recorded values
+     *
+     * @return number of values as long
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Getter for the largest recorded value
+     *
+     * @return the largest value, 0 if nothing was recorded
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Getter for the mean of the recorded values
+     *
+     * @return the mean, 0 if nothing was recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalValue.sum() / count;
+    }
+
+    /**
+     * Returns the value below which the given percentage of recorded values fall. Like
+     * HdrHistogram, the answer is the highest value of the bucket holding that percentile, never
+     * above the largest recorded value.
+     *
+     * @param percentile The percentile, from 0 to 100, for example 99.9.
+     * @return The value at the percentile, 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, PERCENT) / PERCENT * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += getBucketCount(i);
+            if (seen >= rank) {
+                return Math.min(highestValueInBucket(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the counters of a stripe, allocating them if the stripe has not recorded anything yet.
+     */
+    private AtomicLongArray counts(int stripe) {
+        AtomicLongArray counts = stripeCounts.get(stripe);
+        if (counts == null) {
+            stripeCounts.compareAndSet(stripe, null, new AtomicLongArray(BUCKET_COUNT));
+            counts = stripeCounts.get(stripe);
+        }
+        return counts;
+    }
+
+    /**
+     * Adds up the counters of one bucket over all stripes that recorded anything.
+     */
+    private long getBucketCount(int index) {
+        long count = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            AtomicLongArray counts = stripeCounts.get(stripe);
+            if (counts != null) {
+                count += counts.get(index);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Computes the bucket of a value: its power of two picks a group of 64 buckets, and the 6 bits
+     * below its highest bit pick the bucket inside the group.
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = HIGHEST_BIT - Long.numberOfLeadingZeros(value) - SUB_BUCKET_HALF_BITS;
+        return magnitude * SUB_BUCKET_HALF + (int) (value >>> magnitude);
+    }
+
+    private static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int magnitude = (index >> SUB_BUCKET_HALF_BITS) - 1;
+        long subBucket = index - (long) magnitude * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(50) +
+                ", p99=" + getValueAtPercentile(99) +
+                ", p999=" + getValueAtPercentile(99.9) +
+                ", max=" + getMax() +
+                '}';
+    }
+}
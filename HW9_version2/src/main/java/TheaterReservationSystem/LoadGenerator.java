@@ -0,0 +1,264 @@
+package TheaterReservationSystem;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * LoadGenerator answers "how many bookings per second can one theater take, and how full does it
+ * get". It sends random reservation requests to a ReservationService from several threads at
+ * once, with party sizes drawn from a weighted distribution and a share of them asking for
+ * wheelchair seats, and reports throughput, latency percentiles, outcomes and final occupancy.
+ * Once a standard party finds no seats together the show is sold out, and the next requests go to
+ * a fresh theater with the same layout, so a long run keeps measuring bookings rather than
+ * rejections. The occupancy is then over the seats of every show.
+ *
+ * Run it with gradle loadTest, passing options with -PloadArgs, for example
+ * <pre>
+ *   gradle loadTest -PloadArgs="--rows 200 --seats 26 --threads 8 --party-sizes 1:10,2:50,4:40"
+ * </pre>
+ * Options are --rows, --seats, --wheelchair-rows (comma separated), --threads, --requests,
+ * --party-sizes (size:weight pairs), --wheelchair-ratio and --seed.
+ */
+public class LoadGenerator {
+
+    private static final String OPTION_PREFIX = "--";
+    private static final String LIST_SEPARATOR = ",";
+    private static final String WEIGHT_SEPARATOR = ":";
+    private static final String PARTY_NAME = "Party";
+    private static final Map<String, String> DEFAULT_OPTIONS = defaultOptions();
+
+    private final Theater theater;
+    private final AtomicReference<Theater> show = new AtomicReference<>();
+    private final AtomicInteger shows = new AtomicInteger();
+    private final ReservationService reservationService;
+    private final int[] partySizes;
+    private final int[] cumulativeWeights;
+    private final double wheelchairRatio;
+    private final int threads;
+    private final long requests;
+    private final long seed;
+
+    /**
+     * Constructs a new LoadGenerator.
+     *
+     * @param theater            The theater to book first, and the layout of the later shows.
+     * @param reservationService The service handling reservations for the theater.
+     * @param partySizeWeights   Relative weight of each party size, for example {2=40, 4=20}.
+     * @param wheelchairRatio    Share of requests asking for wheelchair seats, from 0 to 1.
+     * @param threads            Number of threads sending requests.
+     * @param requests           Total number of requests to send.
+     * @param seed               Seed of the random requests, so runs can be repeated.
+     * @throws IllegalArgumentException if no party size has a positive weight or threads is below 1.
+     */
+    public LoadGenerator(Theater theater, ReservationService reservationService, Map<Integer, Integer> partySizeWeights,
+                         double wheelchairRatio, int threads, long requests, long seed) throws IllegalArgumentException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed.");
+        }
+        List<Integer> sizes = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int totalWeight = 0;
+        for (Map.Entry<Integer, Integer> entry : partySizeWeights.entrySet()) {
+            if (entry.getValue() > 0) {
+                totalWeight += entry.getValue();
+                sizes.add(entry.getKey());
+                weights.add(totalWeight);
+            }
+        }
+        if (sizes.isEmpty()) {
+            throw new IllegalArgumentException("At least one party size needs a positive weight.");
+        }
+        this.theater = theater;
+        this.reservationService = reservationService;
+        this.partySizes = sizes.stream().mapToInt(Integer::intValue).toArray();
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+        this.wheelchairRatio = wheelchairRatio;
+        this.threads = threads;
+        this.requests = requests;
+        this.seed = seed;
+    }
+
+    /**
+     * Sends all requests and waits for them to finish.
+     *
+     * @return The report of the run.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    public LoadReport run() throws InterruptedException {
+        show.set(theater);
+        shows.set(1);
+        AtomicLong nextRequest = new AtomicLong();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> workerThreads = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(new SplittableRandom(seed + i), nextRequest, startSignal);
+            workers.add(worker);
+            workerThreads.add(new Thread(worker, "load-" + i));
+        }
+        workerThreads.forEach(Thread::start);
+        long start = System.nanoTime();
+        startSignal.countDown();
+        for (Thread thread : workerThreads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        Map<ReservationResult.Status, Long> outcomes = new EnumMap<>(ReservationResult.Status.class);
+        int reservedSeats = 0;
+        for (Worker worker : workers) {
+            latencies.add(worker.latencies);
+            reservedSeats += worker.reservedSeats;
+            for (ReservationResult.Status status : ReservationResult.Status.values()) {
+                outcomes.merge(status, worker.outcomes[status.ordinal()], Long::sum);
+            }
+        }
+        return new LoadReport(requests, elapsed, latencies, outcomes, reservedSeats,
+                shows.get() * theater.getTotalRows() * theater.getTotalSeatsInARow());
+    }
+
+    /**
+     * Replaces a sold out show with a fresh theater of the same layout. Only the first thread to
+     * find the show sold out replaces it; the others go on with the new one.
+     */
+    private void nextShow(Theater soldOut) {
+        if (show.get() != soldOut) {
+            return;
+        }
+        Theater next;
+        try {
+            next = new Theater(theater.getName(), theater.getTotalRows(), theater.getTotalSeatsInARow(),
+                    theater.getWheelchairRows());
+        } catch (NoAccessibleRowsException e) {
+            throw new IllegalStateException("The theater's layout has no wheelchair rows.", e);
+        }
+        if (show.compareAndSet(soldOut, next)) {
+            shows.incrementAndGet();
+        }
+    }
+
+    /**
+     * Draws a party size from the weighted distribution.
+     */
+    private int nextPartySize(SplittableRandom random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return partySizes[i];
+            }
+        }
+        return partySizes[partySizes.length - 1];
+    }
+
+    /**
+     * One sending thread, with its own random source, histogram and outcome counters so the
+     * threads never contend on anything but the theater itself.
+     */
+    private final class Worker implements Runnable {
+        private final SplittableRandom random;
+        private final AtomicLong nextRequest;
+        private final CountDownLatch startSignal;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final long[] outcomes = new long[ReservationResult.Status.values().length];
+        private int reservedSeats;
+
+        private Worker(SplittableRandom random, AtomicLong nextRequest, CountDownLatch startSignal) {
+            this.random = random;
+            this.nextRequest = nextRequest;
+            this.startSignal = startSignal;
+        }
+
+        @Override
+        public void run() {
+            try {
+                startSignal.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long request;
+            while ((request = nextRequest.getAndIncrement()) < requests) {
+                int numSeats = nextPartySize(random);
+                boolean wheelchairAccessible = random.nextDouble() < wheelchairRatio;
+                String name = PARTY_NAME + request;
+                Theater current = show.get();
+                long start = System.nanoTime();
+                ReservationResult result = reservationService.reserve(current, numSeats, name, wheelchairAccessible);
+                latencies.record(System.nanoTime() - start);
+                ReservationResult.Status status = result.getStatus();
+                outcomes[status.ordinal()]++;
+                if (status == ReservationResult.Status.RESERVED) {
+                    reservedSeats += numSeats;
+                } else if (status == ReservationResult.Status.NO_SEATS_TOGETHER && !wheelchairAccessible) {
+                    nextShow(current);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the load generator against a fresh theater and prints the report.
+     *
+     * @param args Options, see the class description.
+     * @throws NoAccessibleRowsException if the theater has no wheelchair rows.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     * @throws IllegalArgumentException if an option is missing its value or has an invalid value.
+     */
+    public static void main(String[] args) throws NoAccessibleRowsException, InterruptedException, IllegalArgumentException {
+        Map<String, String> options = parseOptions(args);
+        int totalRows = Integer.parseInt(options.get("rows"));
+        int seatsInARow = Integer.parseInt(options.get("seats"));
+        List<Integer> wheelchairRows = new ArrayList<>();
+        for (String row : options.get("wheelchair-rows").split(LIST_SEPARATOR)) {
+            wheelchairRows.add(Integer.parseInt(row.trim()));
+        }
+        Map<Integer, Integer> partySizeWeights = new LinkedHashMap<>();
+        for (String pair : options.get("party-sizes").split(LIST_SEPARATOR)) {
+            String[] sizeAndWeight = pair.trim().split(WEIGHT_SEPARATOR);
+            partySizeWeights.put(Integer.parseInt(sizeAndWeight[0]), Integer.parseInt(sizeAndWeight[1]));
+        }
+
+        Theater theater = new Theater("Load", totalRows, seatsInARow, wheelchairRows);
+        LoadGenerator generator = new LoadGenerator(theater, new ReservationService(theater), partySizeWeights,
+                Double.parseDouble(options.get("wheelchair-ratio")), Integer.parseInt(options.get("threads")),
+                Long.parseLong(options.get("requests")), Long.parseLong(options.get("seed")));
+        System.out.println("Theater:    " + totalRows + " rows of " + seatsInARow + " seats, wheelchair rows "
+                + wheelchairRows + ", " + options.get("threads") + " threads");
+        System.out.println(generator.run());
+    }
+
+    private static Map<String, String> parseOptions(String[] args) throws IllegalArgumentException {
+        Map<String, String> options = new HashMap<>(DEFAULT_OPTIONS);
+        for (int i = 0; i < args.length; i += 2) {
+            String name = args[i].startsWith(OPTION_PREFIX) ? args[i].substring(OPTION_PREFIX.length()) : args[i];
+            if (!DEFAULT_OPTIONS.containsKey(name) || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Unknown option or missing value: " + args[i]);
+            }
+            options.put(name, args[i + 1]);
+        }
+        return options;
+    }
+
+    private static Map<String, String> defaultOptions() {
+        Map<String, String> options = new HashMap<>();
+        options.put("rows", "15");
+        options.put("seats", "10");
+        options.put("wheelchair-rows", "6,10");
+        options.put("threads", "4");
+        options.put("requests", "100000");
+        options.put("party-sizes", "1:20,2:40,3:15,4:15,6:10");
+        options.put("wheelchair-ratio", "0.05");
+        options.put("seed", "42");
+        return options;
+    }
+}
@@ -0,0 +1,131 @@
+package TheaterReservationSystem;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * LoadReport sums up a run of the LoadGenerator: how fast bookings went through, how long each
+ * one took, why requests were turned away and how full the theater got.
+ */
+public class LoadReport {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final double PERCENT = 100.0;
+
+    private final long requests;
+    private final long elapsedNanos;
+    private final LatencyHistogram latencies;
+    private final Map<ReservationResult.Status, Long> outcomes;
+    private final int reservedSeats;
+    private final int totalSeats;
+
+    /**
+     * Constructs a new LoadReport.
+     *
+     * @param requests      Number of reservation requests sent.
+     * @param elapsedNanos  Time the run took, in nanoseconds.
+     * @param latencies     Latency of every request, in nanoseconds.
+     * @param outcomes      Number of requests ending in each status.
+     * @param reservedSeats Number of seats reserved at the end of the run.
+     * @param totalSeats    Number of seats in every show of the theater.
+     */
+    public LoadReport(long requests, long elapsedNanos, LatencyHistogram latencies,
+                      Map<ReservationResult.Status, Long> outcomes, int reservedSeats, int totalSeats) {
+        this.requests = requests;
+        this.elapsedNanos = elapsedNanos;
+        this.latencies = latencies;
+        this.outcomes = Collections.unmodifiableMap(new EnumMap<>(outcomes));
+        this.reservedSeats = reservedSeats;
+        this.totalSeats = totalSeats;
+    }
+
+    /**
+     * Getter for the number of requests sent
+     *
+     * @return number of requests as long
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Getter for the time the run took
+     *
+     * @return elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Getter for the request latencies
+     *
+     * @return the latency histogram, in nanoseconds
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns how many requests ended in a status.
+     *
+     * @param status The status.
+     * @return Number of requests, 0 if none ended in it.
+     */
+    public long getCount(ReservationResult.Status status) {
+        return outcomes.getOrDefault(status, 0L);
+    }
+
+    /**
+     * Getter for the throughput
+     *
+     * @return requests handled per second
+     */
+    public double getRequestsPerSecond() {
+        return elapsedNanos == 0 ? 0 : requests * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * Getter for the final occupancy
+     *
+     * @return share of the seats of every show reserved at the end, from 0 to 1
+     */
+    public double getOccupancy() {
+        return totalSeats == 0 ? 0 : (double) reservedSeats / totalSeats;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoadReport that = (LoadReport) o;
+        return requests == that.requests && elapsedNanos == that.elapsedNanos && reservedSeats == that.reservedSeats
+                && totalSeats == that.totalSeats && Objects.equals(outcomes, that.outcomes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requests, elapsedNanos, outcomes, reservedSeats, totalSeats);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Requests:   %d in %.3f s (%.0f requests/s)%n",
+                requests, elapsedNanos / NANOS_PER_SECOND, getRequestsPerSecond()));
+        report.append(String.format("Latency:    p50 %.1f us, p99 %.1f us, p999 %.1f us, max %.1f us%n",
+                latencies.getValueAtPercentile(50) / NANOS_PER_MICRO,
+                latencies.getValueAtPercentile(99) / NANOS_PER_MICRO,
+                latencies.getValueAtPercentile(99.9) / NANOS_PER_MICRO,
+                latencies.getMax() / NANOS_PER_MICRO));
+        for (ReservationResult.Status status : ReservationResult.Status.values()) {
+            report.append(String.format("%-26s%d%n", status + ":", getCount(status)));
+        }
+        report.append(String.format("Occupancy:  %d of %d seats (%.1f%%)",
+                reservedSeats, totalSeats, getOccupancy() * PERCENT));
+        return report.toString();
+    }
+}
@@ -0,0 +1,142 @@
+package TheaterReservationSystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedOccupancyStore keeps the occupancy words in a memory-mapped file. Every process that maps
+ * the same file sees the same words, and because seats are claimed with compare-and-set on the
+ * mapped memory, several local processes can book the same theater without double-booking and
+ * without a database. The file starts with a small header describing the layout:
+ * <pre>
+ *   magic (8 bytes) | number of rows (4 bytes) | seats in a row (4 bytes) | releases (8 bytes) | words of each row
+ * </pre>
+ * The release count goes up whenever any process frees seats, so a process only needs to re-read
+ * the rows when it changed.
+ * Each row owns one word for every 64 of its seats, in row order:
+ * <pre>
+ *   row 1 word 0 | row 1 word 1 | ... | row 2 word 0 | ...
+ * </pre>
+ * Only occupancy is shared, party names stay in the process that made the booking.
+ * Opening takes a lock on the file while the header is checked or written, so processes starting
+ * at the same time agree on which of them creates the file.
+ */
+public class MappedOccupancyStore implements OccupancyStore, Closeable {
+
+  private static final long MAGIC = 0x5448454154455232L;
+  private static final int ROWS_OFFSET = Long.BYTES;
+  private static final int SEATS_OFFSET = ROWS_OFFSET + Integer.BYTES;
+  private static final int RELEASES_OFFSET = SEATS_OFFSET + Integer.BYTES;
+  private static final int HEADER_SIZE = RELEASES_OFFSET + Long.BYTES;
+  private static final VarHandle WORDS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+  /**
+   * file locks are held by the whole process, so threads of one process opening at the same time
+   * take turns here first
+   */
+  private static final Object OPEN_LOCK = new Object();
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int size;
+
+  private MappedOccupancyStore(FileChannel channel, MappedByteBuffer buffer, int size) {
+    this.channel = channel;
+    this.buffer = buffer;
+    this.size = size;
+  }
+
+  /**
+   * Opens a shared occupancy file, creating it with every seat free if it does not exist yet or
+   * its header was never finished.
+   * @param path path of the file
+   * @param totalRows number of rows of the theater
+   * @param numOfSeatInARow number of seats in each row
+   * @return the store
+   * @throws IOException if the file cannot be opened or mapped
+   * @throws IllegalArgumentException if the file was created for a theater with another layout
+   */
+  public static MappedOccupancyStore open(Path path, int totalRows, int numOfSeatInARow)
+      throws IOException, IllegalArgumentException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      int size = Theater.wordsFor(totalRows, numOfSeatInARow);
+      long fileSize = HEADER_SIZE + (long) size * Long.BYTES;
+      MappedByteBuffer buffer;
+      synchronized (OPEN_LOCK) {
+        try (FileLock lock = channel.lock()) {
+          buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+          long magic = buffer.getLong(0);
+          if (magic == 0) {
+            buffer.putInt(ROWS_OFFSET, totalRows).putInt(SEATS_OFFSET, numOfSeatInARow);
+            buffer.putLong(0, MAGIC);
+            buffer.force();
+          } else if (magic != MAGIC || buffer.getInt(ROWS_OFFSET) != totalRows
+              || buffer.getInt(SEATS_OFFSET) != numOfSeatInARow) {
+            throw new IllegalArgumentException("The occupancy file belongs to another theater layout.");
+          }
+        }
+      }
+      return new MappedOccupancyStore(channel, buffer, size);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public long getWord(int index) {
+    return (long) WORDS.getVolatile(buffer, offset(index));
+  }
+
+  @Override
+  public boolean compareAndSetWord(int index, long expected, long updated) {
+    return WORDS.compareAndSet(buffer, offset(index), expected, updated);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isShared() {
+    return true;
+  }
+
+  @Override
+  public void countRelease() {
+    WORDS.getAndAdd(buffer, RELEASES_OFFSET, 1L);
+  }
+
+  @Override
+  public long getReleaseCount() {
+    return (long) WORDS.getVolatile(buffer, RELEASES_OFFSET);
+  }
+
+  /**
+   * Writes the mapped words to disk.
+   */
+  public void force() {
+    buffer.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    force();
+    channel.close();
+  }
+
+  private static int offset(int index) {
+    return HEADER_SIZE + index * Long.BYTES;
+  }
+}
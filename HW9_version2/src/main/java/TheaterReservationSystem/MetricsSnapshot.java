@@ -0,0 +1,304 @@
+package TheaterReservationSystem;
+
+import java.util.Objects;
+
+/**
+ * MetricsSnapshot is a copy of a ReservationMetrics at one point in time. Latencies are in
+ * nanoseconds.
+ */
+public class MetricsSnapshot {
+    private final long attempts;
+    private final long reserved;
+    private final long rejectedInvalidNumberOfSeats;
+    private final long rejectedTooManySeatsForARow;
+    private final long rejectedNoSeatsTogether;
+    private final long rejectedNotRecorded;
+    private final long rowsInspected;
+    private final long claimConflicts;
+    private final long seatsClaimed;
+    private final long seatsRolledBack;
+    private final long seatsReleased;
+    private final long reserveLatencyP50;
+    private final long reserveLatencyP99;
+    private final long reserveLatencyP999;
+    private final long reserveLatencyMax;
+    private final long findBestRowLatencyP50;
+    private final long findBestRowLatencyP99;
+    private final long findBestRowLatencyP999;
+
+    /**
+     * Constructs a new MetricsSnapshot.
+     *
+     * @param attempts                     Reservation attempts.
+     * @param reserved                     Attempts that got seats.
+     * @param rejectedInvalidNumberOfSeats Attempts rejected for asking for no seats or a negative number.
+     * @param rejectedTooManySeatsForARow  Attempts rejected for asking for more seats than a row has.
+     * @param rejectedNoSeatsTogether      Attempts rejected because no row had enough adjacent free seats.
+     * @param rejectedNotRecorded          Attempts that found seats but could not record the reservation.
+     * @param rowsInspected                Rows attempts tried to claim seats in.
+     * @param claimConflicts               Times another booking took the seats of the row found first.
+     * @param seatsClaimed                 Seats reserved.
+     * @param seatsRolledBack              Seats claimed and given back because the booking could not be recorded.
+     * @param seatsReleased                Seats released by cancellations.
+     * @param reserveLatencyP50            Median reservation latency in nanoseconds.
+     * @param reserveLatencyP99            99th percentile reservation latency in nanoseconds.
+     * @param reserveLatencyP999           99.9th percentile reservation latency in nanoseconds.
+     * @param reserveLatencyMax            Largest reservation latency in nanoseconds.
+     * @param findBestRowLatencyP50        Median best-row search latency in nanoseconds.
+     * @param findBestRowLatencyP99        99th percentile best-row search latency in nanoseconds.
+     * @param findBestRowLatencyP999       99.9th percentile best-row search latency in nanoseconds.
+     */
+    public MetricsSnapshot(long attempts,
+                           long reserved,
+                           long rejectedInvalidNumberOfSeats,
+                           long rejectedTooManySeatsForARow,
+                           long rejectedNoSeatsTogether,
+                           long rejectedNotRecorded,
+                           long rowsInspected,
+                           long claimConflicts,
+                           long seatsClaimed,
+                           long seatsRolledBack,
+                           long seatsReleased,
+                           long reserveLatencyP50,
+                           long reserveLatencyP99,
+                           long reserveLatencyP999,
+                           long reserveLatencyMax,
+                           long findBestRowLatencyP50,
+                           long findBestRowLatencyP99,
+                           long findBestRowLatencyP999) {
+        this.attempts = attempts;
+        this.reserved = reserved;
+        this.rejectedInvalidNumberOfSeats = rejectedInvalidNumberOfSeats;
+        this.rejectedTooManySeatsForARow = rejectedTooManySeatsForARow;
+        this.rejectedNoSeatsTogether = rejectedNoSeatsTogether;
+        this.rejectedNotRecorded = rejectedNotRecorded;
+        this.rowsInspected = rowsInspected;
+        this.claimConflicts = claimConflicts;
+        this.seatsClaimed = seatsClaimed;
+        this.seatsRolledBack = seatsRolledBack;
+        this.seatsReleased = seatsReleased;
+        this.reserveLatencyP50 = reserveLatencyP50;
+        this.reserveLatencyP99 = reserveLatencyP99;
+        this.reserveLatencyP999 = reserveLatencyP999;
+        this.reserveLatencyMax = reserveLatencyMax;
+        this.findBestRowLatencyP50 = findBestRowLatencyP50;
+        this.findBestRowLatencyP99 = findBestRowLatencyP99;
+        this.findBestRowLatencyP999 = findBestRowLatencyP999;
+    }
+
+    /**
+     * Getter for the number of reservation attempts
+     *
+     * @return the number as long
+     */
+    public long getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Getter for the number of attempts that got seats
+     *
+     * @return the number as long
+     */
+    public long getReserved() {
+        return reserved;
+    }
+
+    /**
+     * Getter for the number of attempts rejected for asking for no seats or a negative number
+     *
+     * @return the number as long
+     */
+    public long getRejectedInvalidNumberOfSeats() {
+        return rejectedInvalidNumberOfSeats;
+    }
+
+    /**
+     * Getter for the number of attempts rejected for asking for more seats than a row has
+     *
+     * @return the number as long
+     */
+    public long getRejectedTooManySeatsForARow() {
+        return rejectedTooManySeatsForARow;
+    }
+
+    /**
+     * Getter for the number of attempts rejected because no row had enough adjacent free seats
+     *
+     * @return the number as long
+     */
+    public long getRejectedNoSeatsTogether() {
+        return rejectedNoSeatsTogether;
+    }
+
+    /**
+     * Getter for the number of attempts that found seats but could not record the reservation
+     *
+     * @return the number as long
+     */
+    public long getRejectedNotRecorded() {
+        return rejectedNotRecorded;
+    }
+
+    /**
+     * Getter for the number of rows attempts tried to claim seats in
+     *
+     * @return the number as long
+     */
+    public long getRowsInspected() {
+        return rowsInspected;
+    }
+
+    /**
+     * Getter for the number of times another booking took the seats of the row found first
+     *
+     * @return the number as long
+     */
+    public long getClaimConflicts() {
+        return claimConflicts;
+    }
+
+    /**
+     * Getter for the number of seats reserved
+     *
+     * @return the number as long
+     */
+    public long getSeatsClaimed() {
+        return seatsClaimed;
+    }
+
+    /**
+     * Getter for the number of seats claimed and given back because the booking could not be recorded
+     *
+     * @return the number as long
+     */
+    public long getSeatsRolledBack() {
+        return seatsRolledBack;
+    }
+
+    /**
+     * Getter for the number of seats released by cancellations
+     *
+     * @return the number as long
+     */
+    public long getSeatsReleased() {
+        return seatsReleased;
+    }
+
+    /**
+     * Getter for the median reservation latency in nanoseconds
+     *
+     * @return the latency as long
+     */
+    public long getReserveLatencyP50() {
+        return reserveLatencyP50;
+    }
+
+    /**
+     * Getter for the 99th percentile reservation latency in nanoseconds
+     *
+     * @return the latency as long
+     */
+    public long getReserveLatencyP99() {
+        return reserveLatencyP99;
+    }
+
+    /**
+     * Getter for the 99.9th percentile reservation latency in nanoseconds
+     *
+     * @return the latency as long
+     */
+    public long getReserveLatencyP999() {
+        return reserveLatencyP999;
+    }
+
+    /**
+     * Getter for the largest reservation latency in nanoseconds
+     *
+     * @return the latency as long
+     */
+    public long getReserveLatencyMax() {
+        return reserveLatencyMax;
+    }
+
+    /**
+     * Getter for the median best-row search latency in nanoseconds
+     *
+     * @return the latency as long
+     */
+    public long getFindBestRowLatencyP50() {
+        return findBestRowLatencyP50;
+    }
+
+    /**
+     * Getter for the 99th percentile best-row search latency in nanoseconds
+     *
+     * @return the latency as long
+     */
+    public long getFindBestRowLatencyP99() {
+        return findBestRowLatencyP99;
+    }
+
+    /**
+     * Getter for the 99.9th percentile best-row search latency in nanoseconds
+     *
+     * @return the latency as long
+     */
+    public long getFindBestRowLatencyP999() {
+        return findBestRowLatencyP999;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MetricsSnapshot that = (MetricsSnapshot) o;
+        return attempts == that.attempts
+                && reserved == that.reserved
+                && rejectedInvalidNumberOfSeats == that.rejectedInvalidNumberOfSeats
+                && rejectedTooManySeatsForARow == that.rejectedTooManySeatsForARow
+                && rejectedNoSeatsTogether == that.rejectedNoSeatsTogether
+                && rejectedNotRecorded == that.rejectedNotRecorded
+                && rowsInspected == that.rowsInspected
+                && claimConflicts == that.claimConflicts
+                && seatsClaimed == that.seatsClaimed
+                && seatsRolledBack == that.seatsRolledBack
+                && seatsReleased == that.seatsReleased
+                && reserveLatencyP50 == that.reserveLatencyP50
+                && reserveLatencyP99 == that.reserveLatencyP99
+                && reserveLatencyP999 == that.reserveLatencyP999
+                && reserveLatencyMax == that.reserveLatencyMax
+                && findBestRowLatencyP50 == that.findBestRowLatencyP50
+                && findBestRowLatencyP99 == that.findBestRowLatencyP99
+                && findBestRowLatencyP999 == that.findBestRowLatencyP999;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(attempts, reserved, rejectedInvalidNumberOfSeats, rejectedTooManySeatsForARow, rejectedNoSeatsTogether, rejectedNotRecorded, rowsInspected, claimConflicts, seatsClaimed, seatsRolledBack, seatsReleased, reserveLatencyP50, reserveLatencyP99, reserveLatencyP999, reserveLatencyMax, findBestRowLatencyP50, findBestRowLatencyP99, findBestRowLatencyP999);
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{" +
+                "attempts=" + attempts +
+                ", reserved=" + reserved +
+                ", rejectedInvalidNumberOfSeats=" + rejectedInvalidNumberOfSeats +
+                ", rejectedTooManySeatsForARow=" + rejectedTooManySeatsForARow +
+                ", rejectedNoSeatsTogether=" + rejectedNoSeatsTogether +
+                ", rejectedNotRecorded=" + rejectedNotRecorded +
+                ", rowsInspected=" + rowsInspected +
+                ", claimConflicts=" + claimConflicts +
+                ", seatsClaimed=" + seatsClaimed +
+                ", seatsRolledBack=" + seatsRolledBack +
+                ", seatsReleased=" + seatsReleased +
+                ", reserveLatencyP50=" + reserveLatencyP50 +
+                ", reserveLatencyP99=" + reserveLatencyP99 +
+                ", reserveLatencyP999=" + reserveLatencyP999 +
+                ", reserveLatencyMax=" + reserveLatencyMax +
+                ", findBestRowLatencyP50=" + findBestRowLatencyP50 +
+                ", findBestRowLatencyP99=" + findBestRowLatencyP99 +
+                ", findBestRowLatencyP999=" + findBestRowLatencyP999 +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package TheaterReservationSystem;
+
+/**
+ * OccupancyStore holds the occupancy bitmaps of a theater's rows as 64-bit words. Each row owns
+ * one word for every 64 of its seats, bit i % 64 of the row's word i / 64 is set when the seat at
+ * index i is reserved. Words are only ever changed with
+ * compare-and-set, so a store can be shared by several threads, or by several processes when it
+ * is backed by a shared file.
+ */
+public interface OccupancyStore {
+
+  /**
+   * Reads a word.
+   * @param index index of the word
+   * @return the current value of the word
+   */
+  long getWord(int index);
+
+  /**
+   * Sets a word to a new value if it still has the expected value.
+   * @param index index of the word
+   * @param expected the value the word must have
+   * @param updated the new value
+   * @return true if the word was changed, false if it had another value
+   */
+  boolean compareAndSetWord(int index, long expected, long updated);
+
+  /**
+   * Getter for the number of words
+   * @return number of words as int
+   */
+  int size();
+
+  /**
+   * Checks if other processes may change the words too, in which case the theater cannot rely on
+   * seeing every change itself.
+   * @return true if the store is shared with other processes, otherwise false
+   */
+  default boolean isShared() {
+    return false;
+  }
+
+  /**
+   * Counts a release, a change that turned reserved seats free again. Shared stores keep the count
+   * with the words, so a process can tell whether others freed seats it has not seen.
+   */
+  default void countRelease() {
+  }
+
+  /**
+   * Getter for the number of releases counted by every user of the store
+   * @return number of releases as long, always 0 for a store that is not shared
+   */
+  default long getReleaseCount() {
+    return 0;
+  }
+}
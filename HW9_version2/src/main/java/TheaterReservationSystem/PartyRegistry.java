@@ -0,0 +1,181 @@
+package TheaterReservationSystem;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PartyRegistry gives every party name a compact integer ID, so seats can store an int instead of
+ * the name, and keeps a reverse index from each party to the seats it holds. Finding or
+ * cancelling a party's seats then costs O(seats in the party) instead of scanning the theater.
+ * Seats are identified by a seat key packing the row number and the seat index.
+ */
+public class PartyRegistry {
+
+  /**
+   * ID stored for a seat that belongs to no party
+   */
+  public static final int NO_PARTY = 0;
+  private static final int INITIAL_CAPACITY = 4;
+  private static final int SEAT_INDEX_BITS = 16;
+  private static final int SEAT_INDEX_MASK = (1 << SEAT_INDEX_BITS) - 1;
+
+  private final Map<String, Party> partiesByName = new ConcurrentHashMap<>();
+  private final Map<Integer, Party> partiesById = new ConcurrentHashMap<>();
+  private final AtomicInteger nextId = new AtomicInteger(NO_PARTY);
+
+  /**
+   * Returns the ID of a party, registering the name if it is new. A party is forgotten again once
+   * the last of its seats is released, so a name that comes back later may get a new ID.
+   * @param name name of the party
+   * @return ID of the party, or NO_PARTY if the name is null
+   */
+  public int register(String name) {
+    if (name == null) {
+      return NO_PARTY;
+    }
+    return partiesByName.computeIfAbsent(name, this::newParty).id;
+  }
+
+  private Party newParty(String name) {
+    Party party = new Party(nextId.incrementAndGet(), name);
+    partiesById.put(party.id, party);
+    return party;
+  }
+
+  /**
+   * Looks up the ID of a party without registering it.
+   * @param name name of the party
+   * @return ID of the party, or NO_PARTY if the name is not registered
+   */
+  public int findId(String name) {
+    Party party = name == null ? null : partiesByName.get(name);
+    return party == null ? NO_PARTY : party.id;
+  }
+
+  /**
+   * Getter for the name of a party
+   * @param id ID of the party
+   * @return name as String, or null for NO_PARTY or a party that holds no seats any more
+   */
+  public String getName(int id) {
+    Party party = id == NO_PARTY ? null : partiesById.get(id);
+    return party == null ? null : party.name;
+  }
+
+  /**
+   * Returns the seats a party holds.
+   * @param id ID of the party
+   * @return seat keys of the party's seats, in no particular order
+   */
+  public int[] getSeatKeys(int id) {
+    Party party = id == NO_PARTY ? null : partiesById.get(id);
+    return party == null ? new int[0] : party.seatKeys();
+  }
+
+  /**
+   * Records that a party now holds a seat. This fails if the party was forgotten after releasing
+   * its last seat since its ID was handed out; the caller then registers the name again.
+   * @param id ID of the party
+   * @param seatKey key of the seat
+   * @return true if the seat was recorded, false if the party is no longer registered
+   */
+  boolean addSeat(int id, int seatKey) {
+    if (id == NO_PARTY) {
+      return true;
+    }
+    Party party = partiesById.get(id);
+    return party != null && party.add(seatKey);
+  }
+
+  /**
+   * Records that a party no longer holds a seat, and forgets the party once it holds none.
+   * @param id ID of the party
+   * @param seatKey key of the seat
+   */
+  void removeSeat(int id, int seatKey) {
+    Party party = id == NO_PARTY ? null : partiesById.get(id);
+    if (party != null && party.remove(seatKey)) {
+      partiesByName.remove(party.name, party);
+      partiesById.remove(party.id, party);
+    }
+  }
+
+  /**
+   * Packs a row number and a seat index into a seat key.
+   * @param rowNumber row number, starting from 1
+   * @param seatIndex index of the seat in the row, starting from 0
+   * @return the seat key
+   */
+  public static int seatKey(int rowNumber, int seatIndex) {
+    return (rowNumber << SEAT_INDEX_BITS) | seatIndex;
+  }
+
+  /**
+   * Getter for the row number of a seat key
+   * @param seatKey the seat key
+   * @return row number, starting from 1
+   */
+  public static int rowNumberOf(int seatKey) {
+    return seatKey >>> SEAT_INDEX_BITS;
+  }
+
+  /**
+   * Getter for the seat index of a seat key
+   * @param seatKey the seat key
+   * @return index of the seat in the row, starting from 0
+   */
+  public static int seatIndexOf(int seatKey) {
+    return seatKey & SEAT_INDEX_MASK;
+  }
+
+  /**
+   * One registered party and the keys of the seats it holds. A party that released its last seat
+   * is retired and takes no seats any more.
+   */
+  private static final class Party {
+    private final int id;
+    private final String name;
+    private int[] seatKeys;
+    private int numSeats;
+    private boolean retired;
+
+    private Party(int id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    private synchronized boolean add(int seatKey) {
+      if (retired) {
+        return false;
+      }
+      if (seatKeys == null) {
+        seatKeys = new int[INITIAL_CAPACITY];
+      } else if (numSeats == seatKeys.length) {
+        seatKeys = Arrays.copyOf(seatKeys, seatKeys.length * 2);
+      }
+      seatKeys[numSeats++] = seatKey;
+      return true;
+    }
+
+    /**
+     * Removes a seat, retiring the party if it was the last one.
+     * @return true if the party was retired
+     */
+    private synchronized boolean remove(int seatKey) {
+      for (int i = 0; i < numSeats; i++) {
+        if (seatKeys[i] == seatKey) {
+          seatKeys[i] = seatKeys[--numSeats];
+          retired = numSeats == 0;
+          return retired;
+        }
+      }
+      return false;
+    }
+
+    private synchronized int[] seatKeys() {
+      return seatKeys == null ? new int[0] : Arrays.copyOf(seatKeys, numSeats);
+    }
+  }
+}
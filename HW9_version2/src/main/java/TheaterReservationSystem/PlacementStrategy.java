@@ -0,0 +1,31 @@
+package TheaterReservationSystem;
+
+/**
+ * PlacementStrategy decides where in a row a party sits once the row is chosen. The row walks its
+ * free runs (maximal blocks of adjacent free seats) from left to right, and for every run that can
+ * hold the party asks the strategy where in the run the party would sit and how much that costs.
+ * The party gets the cheapest place, the leftmost on ties, and the walk stops at the first place
+ * costing 0. StandardPlacement holds the strategies that come with the system.
+ */
+public interface PlacementStrategy {
+
+  /**
+   * Picks the first seat of the party inside a free run.
+   * @param runStart index of the first free seat of the run, starting from 0
+   * @param runLength number of free seats in the run, at least numSeats
+   * @param numSeats number of seats of the party
+   * @param seatsInARow number of seats in the whole row
+   * @return index of the party's first seat, from runStart to runStart + runLength - numSeats
+   */
+  int firstSeat(int runStart, int runLength, int numSeats, int seatsInARow);
+
+  /**
+   * Rates a place picked by firstSeat, lower is better.
+   * @param firstSeat index of the party's first seat
+   * @param runLength number of free seats in the run holding the place
+   * @param numSeats number of seats of the party
+   * @param seatsInARow number of seats in the whole row
+   * @return the cost, 0 or more; 0 ends the search
+   */
+  int cost(int firstSeat, int runLength, int numSeats, int seatsInARow);
+}
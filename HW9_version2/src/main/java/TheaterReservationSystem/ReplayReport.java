@@ -0,0 +1,109 @@
+package TheaterReservationSystem;
+
+import java.util.Objects;
+
+/**
+ * ReplayReport sums up a run of CommandReplay: how many commands were executed, what became of the
+ * reservations and how long it took.
+ */
+public class ReplayReport {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final long commands;
+    private final long reserved;
+    private final long rejected;
+    private final long invalid;
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a new ReplayReport.
+     *
+     * @param commands     Number of lines executed, including names and wheelchair answers.
+     * @param reserved     Number of reservations that got seats.
+     * @param rejected     Number of reservations that got no seats.
+     * @param invalid      Number of lines that were not understood.
+     * @param elapsedNanos Time the replay took, in nanoseconds.
+     */
+    public ReplayReport(long commands, long reserved, long rejected, long invalid, long elapsedNanos) {
+        this.commands = commands;
+        this.reserved = reserved;
+        this.rejected = rejected;
+        this.invalid = invalid;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Getter for the number of lines executed
+     *
+     * @return number of lines as long
+     */
+    public long getCommands() {
+        return commands;
+    }
+
+    /**
+     * Getter for the number of reservations that got seats
+     *
+     * @return number of reservations as long
+     */
+    public long getReserved() {
+        return reserved;
+    }
+
+    /**
+     * Getter for the number of reservations that got no seats
+     *
+     * @return number of reservations as long
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Getter for the number of lines that were not understood
+     *
+     * @return number of lines as long
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * Getter for the time the replay took
+     *
+     * @return elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Getter for the replay speed
+     *
+     * @return commands executed per second
+     */
+    public double getCommandsPerSecond() {
+        return elapsedNanos == 0 ? 0 : commands * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReplayReport that = (ReplayReport) o;
+        return commands == that.commands && reserved == that.reserved && rejected == that.rejected
+                && invalid == that.invalid && elapsedNanos == that.elapsedNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(commands, reserved, rejected, invalid, elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Replayed %d commands in %.3f s (%.0f commands/s): %d reserved, %d rejected, %d invalid",
+                commands, elapsedNanos / NANOS_PER_SECOND, getCommandsPerSecond(), reserved, rejected, invalid);
+    }
+}
@@ -0,0 +1,109 @@
+package TheaterReservationSystem;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.Set;
+
+/**
+ * ReservationClient talks to a ReservationServer. Every answer of the server ends with a question
+ * for the user, or with the goodbye message, so the client reads an answer up to that line. Run
+ * it with a host and port to book interactively from the console; tests use send directly.
+ */
+public class ReservationClient implements Closeable {
+
+    private static final String NEW_LINE = "\n";
+    private static final Set<String> LAST_LINES = Set.of(ReservationSession.PROMPT_COMMAND,
+            ReservationSession.PROMPT_NAME, ReservationSession.PROMPT_WHEELCHAIR, ReservationSession.GOODBYE);
+    private static final int HOST_POSITION = 0;
+    private static final int PORT_POSITION = 1;
+
+    private final SocketChannel channel;
+    private final BufferedReader reader;
+    private final Writer writer;
+
+    private ReservationClient(SocketChannel channel) {
+        this.channel = channel;
+        this.reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        this.writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Connects to a server.
+     *
+     * @param address The address of the server.
+     * @return The client.
+     * @throws IOException if the server cannot be reached.
+     */
+    public static ReservationClient connect(InetSocketAddress address) throws IOException {
+        return new ReservationClient(SocketChannel.open(address));
+    }
+
+    /**
+     * Reads the next answer of the server, up to and including its question for the user.
+     *
+     * @return The answer, one line per line of text, or an empty string if the server closed the connection.
+     * @throws IOException if the connection fails.
+     */
+    public String readAnswer() throws IOException {
+        StringBuilder answer = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            answer.append(line).append(NEW_LINE);
+            if (LAST_LINES.contains(line)) {
+                break;
+            }
+        }
+        return answer.toString();
+    }
+
+    /**
+     * Sends one line to the server and reads its answer.
+     *
+     * @param line The line to send, for example "reserve 3".
+     * @return The answer, see readAnswer.
+     * @throws IOException if the connection fails.
+     */
+    public String send(String line) throws IOException {
+        writer.write(line + NEW_LINE);
+        writer.flush();
+        return readAnswer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Books interactively against a server, relaying the console to the connection.
+     *
+     * @param args The host and port of the server.
+     * @throws IOException if the connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length <= PORT_POSITION) {
+            System.out.println("Usage: ReservationClient <host> <port>");
+            return;
+        }
+        InetSocketAddress address = new InetSocketAddress(args[HOST_POSITION], Integer.parseInt(args[PORT_POSITION]));
+        try (ReservationClient client = connect(address)) {
+            Scanner inputScanner = new Scanner(System.in);
+            String answer = client.readAnswer();
+            while (!answer.isEmpty()) {
+                System.out.print(answer);
+                if (answer.endsWith(ReservationSession.GOODBYE + NEW_LINE) || !inputScanner.hasNextLine()) {
+                    return;
+                }
+                answer = client.send(inputScanner.nextLine());
+            }
+        }
+    }
+}
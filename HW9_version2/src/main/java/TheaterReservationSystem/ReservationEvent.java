@@ -0,0 +1,42 @@
+package TheaterReservationSystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ReservationEvent is the JDK Flight Recorder event of one ReservationService.reserve call, so
+ * bookings show up in a recording by party size, row and outcome instead of as anonymous frames.
+ * The stack trace is left out: every event comes from the same place, and leaving it out keeps
+ * the event cheap enough to have on in production.
+ */
+@Name("TheaterReservationSystem.Reservation")
+@Label("Reservation")
+@Category({"Theater Reservation"})
+@Description("A party asking ReservationService for seats")
+@StackTrace(false)
+final class ReservationEvent extends Event {
+
+    @Label("Theater")
+    String theater;
+
+    @Label("Party Size")
+    int partySize;
+
+    @Label("Wheelchair Accessible")
+    boolean wheelchairAccessible;
+
+    @Label("Row")
+    @Description("Row the party was placed in, 0 if rejected")
+    int row;
+
+    @Label("Rows Inspected")
+    @Description("Rows the reservation tried to claim seats in")
+    int rowsInspected;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,221 @@
+package TheaterReservationSystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ReservationJournal is an append-only file of every reserve and release, so the bookings of a
+ * theater survive a restart. Each change is encoded as a small binary record:
+ * <pre>
+ *   type (1 byte) | row number (4 bytes) | first seat (2 bytes) | number of seats (2 bytes)
+ *   reserve records then add: name length (2 bytes) | name (UTF-8)
+ * </pre>
+ * Appending only copies the record into a buffer. A caller that needs its record on disk calls
+ * awaitDurable, and the first caller to get there writes everything buffered so far and forces it
+ * to disk once for all of them (group commit), instead of paying one fsync per booking.
+ */
+public class ReservationJournal implements Closeable {
+
+  private static final byte RESERVE = 1;
+  private static final byte RELEASE = 2;
+  /**
+   * type, row number, first seat and number of seats
+   */
+  private static final int RECORD_HEADER_SIZE = Byte.BYTES + Integer.BYTES + Short.BYTES + Short.BYTES;
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+
+  private final FileChannel channel;
+  /**
+   * records appended but not written to the channel yet, guarded by writeLock
+   */
+  private final ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final Object writeLock = new Object();
+  private final Object forceLock = new Object();
+  /**
+   * end of the last appended record, counted in bytes from the start of the file
+   */
+  private long appendedPosition;
+  /**
+   * everything before this position is known to be on disk
+   */
+  private volatile long durablePosition;
+
+  private ReservationJournal(FileChannel channel) throws IOException {
+    this.channel = channel;
+    this.appendedPosition = channel.size();
+    this.durablePosition = appendedPosition;
+    channel.position(appendedPosition);
+  }
+
+  /**
+   * Opens a journal file for appending, creating it if it does not exist.
+   * @param path path of the journal file
+   * @return the journal
+   * @throws IOException if the file cannot be opened
+   */
+  public static ReservationJournal open(Path path) throws IOException {
+    return new ReservationJournal(FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE));
+  }
+
+  /**
+   * Appends a reserve record.
+   * @param rowNumber row number of the seats
+   * @param firstSeat index of the first seat, starting from 0
+   * @param numSeats number of seats
+   * @param name name of the party
+   * @return position to pass to awaitDurable
+   * @throws IOException if the buffered records cannot be written
+   */
+  public long appendReserve(int rowNumber, int firstSeat, int numSeats, String name) throws IOException {
+    byte[] nameBytes = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+    if (nameBytes.length > MAX_NAME_BYTES) {
+      throw new IllegalArgumentException("Name is too long for the journal.");
+    }
+    synchronized (writeLock) {
+      ensureCapacity(RECORD_HEADER_SIZE + Short.BYTES + nameBytes.length);
+      putHeader(RESERVE, rowNumber, firstSeat, numSeats);
+      pending.putShort((short) nameBytes.length).put(nameBytes);
+      appendedPosition += RECORD_HEADER_SIZE + Short.BYTES + nameBytes.length;
+      return appendedPosition;
+    }
+  }
+
+  /**
+   * Appends a release record.
+   * @param rowNumber row number of the seats
+   * @param firstSeat index of the first seat, starting from 0
+   * @param numSeats number of seats
+   * @return position to pass to awaitDurable
+   * @throws IOException if the buffered records cannot be written
+   */
+  public long appendRelease(int rowNumber, int firstSeat, int numSeats) throws IOException {
+    synchronized (writeLock) {
+      ensureCapacity(RECORD_HEADER_SIZE);
+      putHeader(RELEASE, rowNumber, firstSeat, numSeats);
+      appendedPosition += RECORD_HEADER_SIZE;
+      return appendedPosition;
+    }
+  }
+
+  /**
+   * Waits until every record up to the given position is on disk. Callers that arrive while
+   * another caller is forcing the file wait for it, and most of them find their record already
+   * covered by that force.
+   * @param position position returned by one of the append methods
+   * @throws IOException if the file cannot be written or forced
+   */
+  public void awaitDurable(long position) throws IOException {
+    if (durablePosition >= position) {
+      return;
+    }
+    synchronized (forceLock) {
+      if (durablePosition >= position) {
+        return;
+      }
+      long target;
+      synchronized (writeLock) {
+        writePending();
+        target = appendedPosition;
+      }
+      channel.force(false);
+      durablePosition = target;
+    }
+  }
+
+  /**
+   * Replays a journal file into a theater, reserving and releasing the seats in the same order as
+   * they were recorded. A record cut short at the end of the file (from a crash while writing) is
+   * ignored.
+   * @param path path of the journal file
+   * @param theater the theater to replay into, with the same layout as when the journal was written
+   * @return number of records replayed
+   * @throws IOException if the file cannot be read
+   */
+  public static int replay(Path path, Theater theater) throws IOException {
+    int records = 0;
+    try (FileChannel input = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      while (input.read(buffer) >= 0) {
+        buffer.flip();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+          int start = buffer.position();
+          byte type = buffer.get(start);
+          int recordSize = RECORD_HEADER_SIZE;
+          if (type == RESERVE) {
+            if (buffer.remaining() < RECORD_HEADER_SIZE + Short.BYTES) {
+              break;
+            }
+            recordSize += Short.BYTES + buffer.getShort(start + RECORD_HEADER_SIZE);
+          }
+          if (buffer.remaining() < recordSize) {
+            break;
+          }
+          buffer.get();
+          Row row = theater.getRows().get(buffer.getInt() - 1);
+          int firstSeat = buffer.getShort();
+          int numSeats = buffer.getShort();
+          if (type == RESERVE) {
+            byte[] nameBytes = new byte[buffer.getShort()];
+            buffer.get(nameBytes);
+            row.reserveSeats(firstSeat, numSeats, new String(nameBytes, StandardCharsets.UTF_8));
+          } else {
+            row.releaseSeats(firstSeat, numSeats);
+          }
+          records++;
+        }
+        buffer.compact();
+      }
+    }
+    return records;
+  }
+
+  @Override
+  public void close() throws IOException {
+    awaitDurable(currentPosition());
+    channel.close();
+  }
+
+  private long currentPosition() {
+    synchronized (writeLock) {
+      return appendedPosition;
+    }
+  }
+
+  private void putHeader(byte type, int rowNumber, int firstSeat, int numSeats) {
+    pending.put(type).putInt(rowNumber).putShort((short) firstSeat).putShort((short) numSeats);
+  }
+
+  /**
+   * Makes room for a record, writing the buffered records to the file if needed. Must be called
+   * while holding writeLock.
+   */
+  private void ensureCapacity(int recordSize) throws IOException {
+    if (pending.remaining() < recordSize) {
+      writePending();
+    }
+  }
+
+  /**
+   * Writes the buffered records to the file. Must be called while holding writeLock. If the write
+   * fails, the records not yet written stay buffered ahead of any record appended afterwards.
+   */
+  private void writePending() throws IOException {
+    pending.flip();
+    try {
+      while (pending.hasRemaining()) {
+        channel.write(pending);
+      }
+    } catch (IOException e) {
+      pending.compact();
+      throw e;
+    }
+    pending.clear();
+  }
+}
@@ -0,0 +1,228 @@
+package TheaterReservationSystem;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * ReservationMetrics counts what a ReservationService does: reservation attempts and their
+ * outcomes, rows inspected, seats claimed, seats given back and the latency of reserving and of
+ * finding the best row. Counters are LongAdders and the histograms are striped, so threads booking
+ * at the same time rarely touch the same memory when recording. Read the numbers with snapshot,
+ * or over JMX after registering the metrics as an MBean.
+ */
+public class ReservationMetrics implements ReservationMetricsMBean {
+
+    private static final int STRIPES = Runtime.getRuntime().availableProcessors();
+    private static final double P50 = 50;
+    private static final double P99 = 99;
+    private static final double P999 = 99.9;
+
+    private final LongAdder[] outcomes = new LongAdder[ReservationResult.Status.values().length];
+    private final LongAdder rowsInspected = new LongAdder();
+    private final LongAdder claimConflicts = new LongAdder();
+    private final LongAdder seatsClaimed = new LongAdder();
+    private final LongAdder seatsRolledBack = new LongAdder();
+    private final LongAdder seatsReleased = new LongAdder();
+    private final LatencyHistogram reserveLatency = new LatencyHistogram(STRIPES);
+    private final LatencyHistogram findBestRowLatency = new LatencyHistogram(STRIPES);
+
+    /**
+     * Constructs a new ReservationMetrics with every counter at zero.
+     */
+    public ReservationMetrics() {
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a finished reservation attempt.
+     *
+     * @param result        The outcome of the attempt.
+     * @param rowsInspected Number of rows the attempt tried to claim seats in.
+     * @param latencyNanos  Time the attempt took, in nanoseconds.
+     */
+    void recordReserve(ReservationResult result, int rowsInspected, long latencyNanos) {
+        outcomes[result.getStatus().ordinal()].increment();
+        if (rowsInspected > 0) {
+            this.rowsInspected.add(rowsInspected);
+        }
+        if (result.isReserved()) {
+            seatsClaimed.add(result.getRequest().getNumSeats());
+        }
+        reserveLatency.record(latencyNanos);
+    }
+
+    /**
+     * Records one search for the best row.
+     *
+     * @param latencyNanos Time the search took, in nanoseconds.
+     */
+    void recordFindBestRow(long latencyNanos) {
+        findBestRowLatency.record(latencyNanos);
+    }
+
+    /**
+     * Records that another booking took the seats of the row found for a party first.
+     */
+    void recordClaimConflict() {
+        claimConflicts.increment();
+    }
+
+    /**
+     * Records seats that were claimed but given back because the booking could not be recorded.
+     *
+     * @param numSeats Number of seats given back.
+     */
+    void recordRollback(int numSeats) {
+        seatsRolledBack.add(numSeats);
+    }
+
+    /**
+     * Records seats released by a cancellation.
+     *
+     * @param numSeats Number of seats released.
+     */
+    void recordRelease(int numSeats) {
+        seatsReleased.add(numSeats);
+    }
+
+    /**
+     * Takes a copy of the current numbers. Counters keep moving while the copy is taken, so
+     * numbers of one snapshot can be a few bookings apart under load.
+     *
+     * @return The snapshot.
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(getAttempts(), getReserved(), getRejectedInvalidNumberOfSeats(),
+                getRejectedTooManySeatsForARow(), getRejectedNoSeatsTogether(), getRejectedNotRecorded(), getRowsInspected(),
+                getClaimConflicts(), getSeatsClaimed(), getSeatsRolledBack(), getSeatsReleased(),
+                getReserveLatencyP50(), getReserveLatencyP99(), getReserveLatencyP999(), getReserveLatencyMax(),
+                getFindBestRowLatencyP50(), getFindBestRowLatencyP99(), getFindBestRowLatencyP999());
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, so they show up in JConsole or
+     * any other JMX client.
+     *
+     * @param name The object name, for example "TheaterReservationSystem:type=ReservationMetrics,name=Roxy".
+     * @return The object name the metrics were registered under.
+     * @throws IllegalArgumentException if the name is malformed or already taken.
+     */
+    public ObjectName register(String name) throws IllegalArgumentException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(name);
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Could not register the metrics as " + name, e);
+        }
+    }
+
+    private long count(ReservationResult.Status status) {
+        return outcomes[status.ordinal()].sum();
+    }
+
+    @Override
+    public long getAttempts() {
+        long attempts = 0;
+        for (LongAdder outcome : outcomes) {
+            attempts += outcome.sum();
+        }
+        return attempts;
+    }
+
+    @Override
+    public long getReserved() {
+        return count(ReservationResult.Status.RESERVED);
+    }
+
+    @Override
+    public long getRejectedInvalidNumberOfSeats() {
+        return count(ReservationResult.Status.INVALID_NUMBER_OF_SEATS);
+    }
+
+    @Override
+    public long getRejectedTooManySeatsForARow() {
+        return count(ReservationResult.Status.TOO_MANY_SEATS_FOR_A_ROW);
+    }
+
+    @Override
+    public long getRejectedNoSeatsTogether() {
+        return count(ReservationResult.Status.NO_SEATS_TOGETHER);
+    }
+
+    @Override
+    public long getRejectedNotRecorded() {
+        return count(ReservationResult.Status.NOT_RECORDED);
+    }
+
+    @Override
+    public long getRowsInspected() {
+        return rowsInspected.sum();
+    }
+
+    @Override
+    public long getClaimConflicts() {
+        return claimConflicts.sum();
+    }
+
+    @Override
+    public long getSeatsClaimed() {
+        return seatsClaimed.sum();
+    }
+
+    @Override
+    public long getSeatsRolledBack() {
+        return seatsRolledBack.sum();
+    }
+
+    @Override
+    public long getSeatsReleased() {
+        return seatsReleased.sum();
+    }
+
+    @Override
+    public long getReserveLatencyP50() {
+        return reserveLatency.getValueAtPercentile(P50);
+    }
+
+    @Override
+    public long getReserveLatencyP99() {
+        return reserveLatency.getValueAtPercentile(P99);
+    }
+
+    @Override
+    public long getReserveLatencyP999() {
+        return reserveLatency.getValueAtPercentile(P999);
+    }
+
+    @Override
+    public long getReserveLatencyMax() {
+        return reserveLatency.getMax();
+    }
+
+    @Override
+    public long getFindBestRowLatencyP50() {
+        return findBestRowLatency.getValueAtPercentile(P50);
+    }
+
+    @Override
+    public long getFindBestRowLatencyP99() {
+        return findBestRowLatency.getValueAtPercentile(P99);
+    }
+
+    @Override
+    public long getFindBestRowLatencyP999() {
+        return findBestRowLatency.getValueAtPercentile(P999);
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationMetrics{" + snapshot() + '}';
+    }
+}
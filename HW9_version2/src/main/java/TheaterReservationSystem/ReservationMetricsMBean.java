@@ -0,0 +1,44 @@
+package TheaterReservationSystem;
+
+/**
+ * JMX view of a ReservationService's metrics, see ReservationMetrics. Latencies are in
+ * nanoseconds.
+ */
+public interface ReservationMetricsMBean {
+
+    long getAttempts();
+
+    long getReserved();
+
+    long getRejectedInvalidNumberOfSeats();
+
+    long getRejectedTooManySeatsForARow();
+
+    long getRejectedNoSeatsTogether();
+
+    long getRejectedNotRecorded();
+
+    long getRowsInspected();
+
+    long getClaimConflicts();
+
+    long getSeatsClaimed();
+
+    long getSeatsRolledBack();
+
+    long getSeatsReleased();
+
+    long getReserveLatencyP50();
+
+    long getReserveLatencyP99();
+
+    long getReserveLatencyP999();
+
+    long getReserveLatencyMax();
+
+    long getFindBestRowLatencyP50();
+
+    long getFindBestRowLatencyP99();
+
+    long getFindBestRowLatencyP999();
+}
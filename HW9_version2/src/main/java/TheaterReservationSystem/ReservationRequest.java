@@ -0,0 +1,72 @@
+package TheaterReservationSystem;
+
+import java.util.Objects;
+
+/**
+ * ReservationRequest holds what a party asks for: how many seats, under which name, and whether
+ * the seats have to be wheelchair accessible.
+ */
+public class ReservationRequest {
+    private final int numSeats;
+    private final String name;
+    private final boolean wheelchairAccessible;
+
+    /**
+     * Constructs a new ReservationRequest object.
+     * @param numSeats             The number of seats to be reserved.
+     * @param name                 The name of the party reserving seats.
+     * @param wheelchairAccessible Whether wheelchair accessible seats are required.
+     */
+    public ReservationRequest(int numSeats, String name, boolean wheelchairAccessible) {
+        this.numSeats = numSeats;
+        this.name = name;
+        this.wheelchairAccessible = wheelchairAccessible;
+    }
+
+    /**
+     * Getter for the number of seats
+     * @return number of seats as int
+     */
+    public int getNumSeats() {
+        return numSeats;
+    }
+
+    /**
+     * Getter for the name of the party
+     * @return name as String
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for wheelchair accessible
+     * @return true if wheelchair accessible seats are required, otherwise false.
+     */
+    public boolean isWheelchairAccessible() {
+        return wheelchairAccessible;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReservationRequest that = (ReservationRequest) o;
+        return numSeats == that.numSeats && wheelchairAccessible == that.wheelchairAccessible
+                && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(numSeats, name, wheelchairAccessible);
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationRequest{" +
+                "numSeats=" + numSeats +
+                ", name='" + name + '\'' +
+                ", wheelchairAccessible=" + wheelchairAccessible +
+                '}';
+    }
+}
@@ -0,0 +1,175 @@
+package TheaterReservationSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ReservationResult describes the outcome of one reservation: whether it succeeded, and if so in
+ * which row and on which seats the party was placed.
+ */
+public class ReservationResult {
+
+    /**
+     * The possible outcomes of a reservation.
+     */
+    public enum Status {
+        /** the seats were reserved */
+        RESERVED,
+        /** the number of seats was zero or negative */
+        INVALID_NUMBER_OF_SEATS,
+        /** the party is larger than a row */
+        TOO_MANY_SEATS_FOR_A_ROW,
+        /** no row has enough adjacent free seats */
+        NO_SEATS_TOGETHER,
+        /** seats were found but the reservation could not be recorded, so they were given back */
+        NOT_RECORDED
+    }
+
+    private static final int NO_ROW = 0;
+
+    private final Status status;
+    private final ReservationRequest request;
+    private final Row row;
+    private final int firstSeat;
+    /**
+     * number of seats in a row of the theater, used to explain why a party was too large
+     */
+    private final int seatsInARow;
+
+    private ReservationResult(Status status, ReservationRequest request, Row row, int firstSeat, int seatsInARow) {
+        this.status = status;
+        this.request = request;
+        this.row = row;
+        this.firstSeat = firstSeat;
+        this.seatsInARow = seatsInARow;
+    }
+
+    /**
+     * Creates the result of a successful reservation.
+     * @param request   the request that was placed
+     * @param row       the row the party was placed in
+     * @param firstSeat index of the first reserved seat in the row, starting from 0
+     * @return the result
+     */
+    static ReservationResult reserved(ReservationRequest request, Row row, int firstSeat) {
+        return new ReservationResult(Status.RESERVED, request, row, firstSeat, row.getNumOfSeatInARow());
+    }
+
+    /**
+     * Creates the result of a rejected reservation.
+     * @param status  why the request was rejected
+     * @param request the request that was rejected
+     * @param seatsInARow number of seats in a row of the theater
+     * @return the result
+     */
+    static ReservationResult rejected(Status status, ReservationRequest request, int seatsInARow) {
+        return new ReservationResult(status, request, null, Row.NO_SEATS_FOUND, seatsInARow);
+    }
+
+    /**
+     * Getter for the status
+     * @return status of the reservation
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the seats were reserved.
+     * @return true if the reservation succeeded, otherwise false.
+     */
+    public boolean isReserved() {
+        return status == Status.RESERVED;
+    }
+
+    /**
+     * Getter for the request this is the result of
+     * @return the request
+     */
+    public ReservationRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Getter for the row number the party was placed in
+     * @return row number as int, or 0 if the reservation was rejected
+     */
+    public int getRowNumber() {
+        return row == null ? NO_ROW : row.getRowNumber();
+    }
+
+    /**
+     * Getter for the row the party was placed in
+     * @return the row, or null if the reservation was rejected
+     */
+    Row getRow() {
+        return row;
+    }
+
+    /**
+     * Getter for the index of the first reserved seat
+     * @return index of the first seat starting from 0, or Row.NO_SEATS_FOUND if the reservation was rejected
+     */
+    int getFirstSeat() {
+        return firstSeat;
+    }
+
+    /**
+     * Getter for the names of the reserved seats
+     * @return seat names from left to right, empty if the reservation was rejected
+     */
+    public List<String> getSeatNames() {
+        List<String> seatNames = new ArrayList<>();
+        if (row != null) {
+            for (int i = firstSeat; i < firstSeat + request.getNumSeats(); i++) {
+                seatNames.add(row.get(i).getSeatName());
+            }
+        }
+        return seatNames;
+    }
+
+    /**
+     * Builds the message shown to the party for this result.
+     * @return the message as String
+     */
+    public String getMessage() {
+        switch (status) {
+            case INVALID_NUMBER_OF_SEATS:
+                return "Invalid number of seats.";
+            case TOO_MANY_SEATS_FOR_A_ROW:
+                return "Sorry, we can't reserve more than " + seatsInARow + " seats in a single row.";
+            case NO_SEATS_TOGETHER:
+                return "Sorry, we don’t have that many seats together for you.";
+            case NOT_RECORDED:
+                return "Sorry, we could not record your reservation. Please try again.";
+            default:
+                return "I’ve reserved " + request.getNumSeats() + " seats for you at the Roxy in row "
+                        + getRowNumber() + ", " + request.getName() + ".";
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReservationResult that = (ReservationResult) o;
+        return firstSeat == that.firstSeat && getRowNumber() == that.getRowNumber()
+                && status == that.status && Objects.equals(request, that.request);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, request, getRowNumber(), firstSeat);
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationResult{" +
+                "status=" + status +
+                ", request=" + request +
+                ", rowNumber=" + getRowNumber() +
+                ", seatNames=" + getSeatNames() +
+                '}';
+    }
+}
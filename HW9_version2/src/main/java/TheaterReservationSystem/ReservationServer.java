@@ -0,0 +1,344 @@
+package TheaterReservationSystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ReservationServer lets many people book the same theater over the network at once. Users
+ * connect with a line-based client such as ReservationClient or telnet and get the same
+ * conversation as on the console. All connections are served by one thread with a java.nio
+ * selector: every connection only costs its ReservationSession and a small input buffer, so
+ * thousands of mostly idle sessions can be open at the same time. Bookings themselves go through
+ * one shared ReservationService. Seats held for users in the middle of a booking are expired
+ * from the same thread, at least once a second. Only that thread touches the channels: closing
+ * the server asks it to stop, and it closes every connection on its way out.
+ *
+ * Because bookings run on the serving thread, a ReservationService with a journal makes every
+ * connection wait while a reservation is written to disk; the journal's group commit keeps those
+ * waits short, but a slow disk is felt by all users at once. A connection whose answers have not
+ * been written yet is not read from, so a client that sends without reading cannot make the
+ * server queue answers without limit. A session that fails is closed on its own.
+ */
+public class ReservationServer implements Runnable, Closeable {
+
+    private static final int INPUT_BUFFER_SIZE = 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final long HOLD_EXPIRY_INTERVAL_MILLIS = 1000;
+    private static final Logger LOGGER = Logger.getLogger(ReservationServer.class.getName());
+
+    private final Theater theater;
+    private final ReservationService reservationService;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private volatile boolean running = true;
+    /**
+     * the thread serving connections, set under the server's lock once run starts
+     */
+    private Thread serverThread;
+    /**
+     * why closing the connections failed, reported to the caller of close
+     */
+    private volatile IOException closeFailure;
+
+    private ReservationServer(Theater theater, ReservationService reservationService,
+            Selector selector, ServerSocketChannel serverChannel) {
+        this.theater = theater;
+        this.reservationService = reservationService;
+        this.selector = selector;
+        this.serverChannel = serverChannel;
+    }
+
+    /**
+     * Opens a server listening on the given address. Call run, or start, to serve connections.
+     *
+     * @param theater            The theater to book.
+     * @param reservationService The service handling reservations for the theater.
+     * @param address            The address to listen on, port 0 picks a free port.
+     * @return The server.
+     * @throws IOException if the address cannot be bound.
+     */
+    public static ReservationServer open(Theater theater, ReservationService reservationService,
+            InetSocketAddress address) throws IOException {
+        Selector selector = Selector.open();
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        return new ReservationServer(theater, reservationService, selector, serverChannel);
+    }
+
+    /**
+     * Getter for the port the server listens on
+     *
+     * @return the port as int
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Serves connections on a new daemon thread.
+     *
+     * @return The thread serving connections.
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "reservation-server-" + getPort());
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Serves connections until the server is closed, then closes every connection, giving up the
+     * seats held for unfinished bookings, and the listening socket.
+     */
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (!running) {
+                return;  // closed before it was started, close has cleaned up already
+            }
+            serverThread = Thread.currentThread();
+        }
+        try {
+            while (running) {
+                selector.select(HOLD_EXPIRY_INTERVAL_MILLIS);
+                reservationService.expireHolds();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("The reservation server stopped.", e);
+        } finally {
+            try {
+                closeConnections();
+            } catch (IOException e) {
+                closeFailure = e;
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read(key);
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write(key);
+            }
+        } catch (IOException e) {
+            // the user went away, drop the session
+            drop(connection, key);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Closing a session after it failed", e);
+            drop(connection, key);
+        }
+    }
+
+    /**
+     * Closes one connection without letting its failure reach the other connections.
+     */
+    private static void drop(Connection connection, SelectionKey key) {
+        try {
+            connection.close(key);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Could not close a session cleanly", e);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        Connection connection = new Connection(channel, new ReservationSession(theater, reservationService));
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+        try {
+            connection.write(key);
+        } catch (IOException e) {
+            drop(connection, key);
+        }
+    }
+
+    /**
+     * Stops serving and waits until the serving thread has closed the listening socket and every
+     * open connection. A server that was never started is closed right away.
+     *
+     * @throws IOException if a socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = serverThread;
+            if (thread == null) {
+                closeConnections();
+                return;
+            }
+        }
+        selector.wakeup();
+        if (thread == Thread.currentThread()) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (closeFailure != null) {
+            throw closeFailure;
+        }
+    }
+
+    /**
+     * Closes every connection, the listening socket and the selector. Keeps closing the rest when
+     * one of them fails, and reports the first failure.
+     */
+    private void closeConnections() throws IOException {
+        if (!selector.isOpen()) {
+            return;
+        }
+        IOException failure = null;
+        for (SelectionKey key : selector.keys()) {
+            try {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close(key);
+                } else {
+                    key.channel().close();
+                }
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * One open connection: the socket, the session it talks to and the bytes read so far that do
+     * not form a full line yet.
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final ReservationSession session;
+        private final ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER_SIZE);
+
+        private Connection(SocketChannel channel, ReservationSession session) {
+            this.channel = channel;
+            this.session = session;
+        }
+
+        /**
+         * Reads what the user sent and hands every complete line to the session. A line longer
+         * than the input buffer is handed over in pieces.
+         */
+        private void read(SelectionKey key) throws IOException {
+            if (channel.read(input) < 0) {
+                close(key);
+                return;
+            }
+            input.flip();
+            int lineStart = 0;
+            for (int i = 0; i < input.limit() && !session.isDone(); i++) {
+                if (input.get(i) == LINE_FEED) {
+                    session.handleLine(decode(lineStart, i));
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart == 0 && input.limit() == input.capacity()) {
+                session.handleLine(decode(0, input.limit()));
+                lineStart = input.limit();
+            }
+            input.position(lineStart);
+            input.compact();
+            write(key);
+        }
+
+        private String decode(int start, int end) {
+            int length = end - start;
+            if (length > 0 && input.get(end - 1) == CARRIAGE_RETURN) {
+                length--;
+            }
+            byte[] line = new byte[length];
+            input.get(start, line);
+            return new String(line, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Writes as much of the session's answers as the socket takes. If some are left, stops
+         * reading from the user until the socket has taken them all, so unread answers cannot pile up.
+         */
+        private void write(SelectionKey key) throws IOException {
+            Deque<ByteBuffer> output = session.getOutput();
+            if (!output.isEmpty()) {
+                channel.write(output.toArray(new ByteBuffer[0]));
+                while (!output.isEmpty() && !output.peekFirst().hasRemaining()) {
+                    output.removeFirst();
+                }
+                if (!output.isEmpty()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            if (session.isDone()) {
+                close(key);
+                return;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+
+        private void close(SelectionKey key) throws IOException {
+            session.close();
+            key.cancel();
+            channel.close();
+        }
+    }
+}
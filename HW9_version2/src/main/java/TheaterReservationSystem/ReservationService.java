@@ -1,10 +1,12 @@
 package TheaterReservationSystem;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The ReservationService class provides methods to reserve seats in a theater based on user preferences.
@@ -12,12 +14,46 @@ import java.util.stream.Collectors;
  */
 public class ReservationService {
     private Theater theater;
-
     /**
-     * cut by the middle point, used to find the row closest to the center
+     * journal every reserve and release is written to, or null if bookings are kept in memory only
+     */
+    private ReservationJournal journal;
+    /**
+     * counters and latencies of everything this service does
+     */
+    private final ReservationMetrics metrics = new ReservationMetrics();
+    /**
+     * where in the chosen row parties are seated
+     */
+    private volatile PlacementStrategy placementStrategy = StandardPlacement.FIRST_FIT;
+    /**
+     * seat holds waiting to be confirmed, by the time they expire
+     */
+    private final HoldWheel holds = new HoldWheel(HOLD_WHEEL_BUCKETS, HOLD_WHEEL_TICK_NANOS, System.nanoTime());
+    /**
+     * guards releases and cancellations, so a seat is only checked and freed by one of them at a time
+     */
+    private final Object releaseLock = new Object();
+    /**
+     * every seat change this service makes, for subscribers such as ticket printing; created when
+     * it is first asked for, so services nobody listens to do not carry the ring buffer
      */
-    private static final int CUT_BY_MIDDLE = 2;
+    private volatile SeatChangeBus seatChanges;
+
     private static final int MIN_SEAT = 0;
+    /**
+     * holds expire with 100 ms precision, and the wheel turns once every 102 seconds
+     */
+    private static final long HOLD_WHEEL_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int HOLD_WHEEL_BUCKETS = 1024;
+    /**
+     * how many seat changes a subscriber can fall behind before it misses some
+     */
+    private static final int SEAT_CHANGE_CAPACITY = 1 << 14;
+    /**
+     * how long the console and network dialogs hold seats while asking for name and wheelchair access
+     */
+    static final long DIALOG_HOLD_SECONDS = 120;
 
     /**
      * Constructs a new ReservationService object with certain theater
@@ -28,7 +64,18 @@ public class ReservationService {
     }
 
     /**
-     * Reserves the specified number of seats in the given theater for a party.
+     * Constructs a new ReservationService object that records every reserve and release in a journal.
+     * A reservation is only reported as successful once its record is on disk.
+     * @param theater theater, as a Theater object
+     * @param journal journal to record bookings in, replayed into the theater beforehand
+     */
+    public ReservationService(Theater theater, ReservationJournal journal) {
+        this.theater = theater;
+        this.journal = journal;
+    }
+
+    /**
+     * Reserves the specified number of seats in the given theater for a party, and prints the outcome.
      *
      * @param theater             The theater in which seats will be reserved.
      * @param numSeats            The number of seats to be reserved.
@@ -36,52 +83,430 @@ public class ReservationService {
      * @param wheelchairAccessible Whether wheelchair accessible seats are required.
      */
     public void reserveSeats(Theater theater, int numSeats, String name, boolean wheelchairAccessible) {
+        System.out.println(reserve(theater, numSeats, name, wheelchairAccessible).getMessage());
+    }
+
+    /**
+     * Reserves the specified number of seats in the given theater for a party, without printing anything.
+     *
+     * @param theater             The theater in which seats will be reserved.
+     * @param numSeats            The number of seats to be reserved.
+     * @param name                The name of the party reserving seats.
+     * @param wheelchairAccessible Whether wheelchair accessible seats are required.
+     * @return The result of the reservation, with the row and seats assigned or the reason it was rejected.
+     */
+    public ReservationResult reserve(Theater theater, int numSeats, String name, boolean wheelchairAccessible) {
+        return reserve(theater, new ReservationRequest(numSeats, name, wheelchairAccessible));
+    }
+
+    /**
+     * Reserves seats for a whole list of parties in one pass, without printing anything.
+     * Placing larger parties first usually fills the theater better, because the small parties
+     * can still use the gaps the large ones leave.
+     *
+     * @param theater             The theater in which seats will be reserved.
+     * @param requests            The parties to place.
+     * @param largestPartiesFirst Whether to place larger parties before smaller ones.
+     * @return One result per request, in the same order as the requests.
+     */
+    public List<ReservationResult> reserveSeats(Theater theater, List<ReservationRequest> requests,
+                                                boolean largestPartiesFirst) {
+        ReservationResult[] results = new ReservationResult[requests.size()];
+        if (largestPartiesFirst) {
+            Integer[] order = new Integer[requests.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.comparingInt((Integer i) -> requests.get(i).getNumSeats()).reversed());
+            for (int i : order) {
+                results[i] = reserve(theater, requests.get(i));
+            }
+        } else {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = reserve(theater, requests.get(i));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Places one party in the best row. The seats are claimed atomically on the row, so several
+     * threads can book at the same time without locking. If another booking took the seats between
+     * finding the row and claiming them, the row's index entry is refreshed and the search starts over.
+     *
+     * @param theater The theater in which seats will be reserved.
+     * @param request The party to place.
+     * @return The result of the reservation.
+     */
+    public ReservationResult reserve(Theater theater, ReservationRequest request) {
+        ReservationEvent event = new ReservationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int numSeats = request.getNumSeats();
+        int seatsInARow = theater.getTotalSeatsInARow();
         if (numSeats <= MIN_SEAT) {
-            System.out.println("Invalid number of seats.");
-            return;
+            return finish(ReservationResult.rejected(ReservationResult.Status.INVALID_NUMBER_OF_SEATS, request,
+                    seatsInARow), MIN_SEAT, start, theater, event);
+        }
+        if (numSeats > seatsInARow) {
+            return finish(ReservationResult.rejected(ReservationResult.Status.TOO_MANY_SEATS_FOR_A_ROW, request,
+                    seatsInARow), MIN_SEAT, start, theater, event);
         }
 
-        if (numSeats > theater.getTotalSeatsInARow()) {
-            System.out.println("Sorry, we can't reserve more than " + theater.getTotalSeatsInARow() + " seats in a single row.");
-            return;
+        int rowsInspected = MIN_SEAT;
+        while (true) {
+            Row bestRow = findBestRow(theater, numSeats, request.isWheelchairAccessible());
+            if (bestRow == null) {
+                return finish(ReservationResult.rejected(ReservationResult.Status.NO_SEATS_TOGETHER, request,
+                        seatsInARow), rowsInspected, start, theater, event);
+            }
+            rowsInspected++;
+            int firstSeat = bestRow.claimContinuousSeats(numSeats, request.getName(), placementStrategy);
+            if (firstSeat != Row.NO_SEATS_FOUND) {
+                if (!recordReserve(theater, bestRow, firstSeat, request)) {
+                    return finish(ReservationResult.rejected(ReservationResult.Status.NOT_RECORDED, request,
+                            seatsInARow), rowsInspected, start, theater, event);
+                }
+                return finish(ReservationResult.reserved(request, bestRow, firstSeat), rowsInspected, start, theater, event);
+            }
+            metrics.recordClaimConflict();
+            theater.rowChanged(bestRow);
         }
+    }
 
-        List<Row> candidateRows;
-        if (wheelchairAccessible) {
-            candidateRows = theater.getRows().stream()
-                    .filter(Row::isWheelchairAccessible)
-                    .collect(Collectors.toList());
-        } else {
-            candidateRows = theater.getRows().stream()
-                    .filter(row -> !row.isWheelchairAccessible())
-                    .collect(Collectors.toList());
+    /**
+     * Records a finished reservation attempt in the metrics and, while a flight recording is
+     * running, as a ReservationEvent.
+     *
+     * @param result        The outcome of the attempt.
+     * @param rowsInspected Number of rows the attempt tried to claim seats in.
+     * @param start         System.nanoTime() when the attempt started.
+     * @param theater       The theater the attempt was made in.
+     * @param event         The event begun with the attempt.
+     * @return The result, unchanged.
+     */
+    private ReservationResult finish(ReservationResult result, int rowsInspected, long start, Theater theater,
+                                     ReservationEvent event) {
+        metrics.recordReserve(result, rowsInspected, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            ReservationRequest request = result.getRequest();
+            event.theater = theater.getName();
+            event.partySize = request.getNumSeats();
+            event.wheelchairAccessible = request.isWheelchairAccessible();
+            event.row = result.getRowNumber();
+            event.rowsInspected = rowsInspected;
+            event.outcome = result.getStatus().name();
+            event.commit();
         }
+        return result;
+    }
 
-        Row bestRow = findBestRow(candidateRows, numSeats, wheelchairAccessible);
-        if (bestRow == null) {
-            System.out.println("Sorry, we don’t have that many seats together for you.");
-            return;
+    /**
+     * Sets seats aside for a party that is still in the booking dialog. The seats are claimed in the
+     * best row right away, like a reservation, but belong to no party until the hold is confirmed.
+     * Holds that are neither confirmed nor released within the timeout expire and their seats are
+     * freed; expired holds are cleaned up whenever holds are made or confirmed, and by expireHolds.
+     *
+     * @param theater              The theater in which seats will be held.
+     * @param numSeats             The number of seats to hold.
+     * @param wheelchairAccessible Whether wheelchair accessible seats are required.
+     * @param timeout              How long to hold the seats.
+     * @param unit                 The unit of the timeout.
+     * @return The hold, or null if the number of seats is invalid or no row has enough adjacent free seats.
+     */
+    public SeatHold hold(Theater theater, int numSeats, boolean wheelchairAccessible, long timeout, TimeUnit unit) {
+        expireHolds();
+        if (!isValidNumberForReservation(theater, numSeats)) {
+            return null;
+        }
+        while (true) {
+            Row bestRow = findBestRow(theater, numSeats, wheelchairAccessible);
+            if (bestRow == null) {
+                return null;
+            }
+            int firstSeat = bestRow.claimContinuousSeats(numSeats, null, placementStrategy);
+            if (firstSeat != Row.NO_SEATS_FOUND) {
+                SeatHold hold = new SeatHold(theater, bestRow, firstSeat, numSeats, wheelchairAccessible,
+                        System.nanoTime() + unit.toNanos(timeout));
+                holds.add(hold);
+                publish(SeatChange.Type.HOLD, theater, bestRow.getRowNumber(), firstSeat, numSeats, null);
+                return hold;
+            }
+            metrics.recordClaimConflict();
+            theater.rowChanged(bestRow);
         }
+    }
 
-        List<Seat> reservedSeats = new ArrayList<>();
-        int numReserved = MIN_SEAT;
-        for (Seat seat : bestRow) {
-            if (numReserved == numSeats) {
-                break;
+    /**
+     * Turns a hold into a reservation for the named party. If the hold expired or was released in
+     * the meantime, the party is placed like a new reservation instead, so the result says whether
+     * it still got seats.
+     *
+     * @param hold The hold to confirm.
+     * @param name The name of the party.
+     * @return The result of the reservation.
+     * @throws IllegalArgumentException if the hold was confirmed already.
+     */
+    public ReservationResult confirm(SeatHold hold, String name) throws IllegalArgumentException {
+        expireHolds();
+        Theater theater = hold.getTheater();
+        if (!hold.finish(SeatHold.CONFIRMED)) {
+            if (hold.getState() == SeatHold.CONFIRMED) {
+                throw new IllegalArgumentException("The hold was confirmed already.");
             }
-            if (seat.getReservedFor() == null) {
-                seat.reserve(name);
-                reservedSeats.add(seat);
-                numReserved++;
+            return reserve(theater, hold.getNumSeats(), name, hold.isWheelchairAccessible());
+        }
+        ReservationEvent event = new ReservationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        holds.remove(hold);
+        ReservationRequest request = new ReservationRequest(hold.getNumSeats(), name, hold.isWheelchairAccessible());
+        hold.getRow().assignParty(hold.getFirstSeat(), hold.getNumSeats(), name);
+        if (!recordReserve(theater, hold.getRow(), hold.getFirstSeat(), request)) {
+            return finish(ReservationResult.rejected(ReservationResult.Status.NOT_RECORDED, request,
+                    theater.getTotalSeatsInARow()), 1, start, theater, event);
+        }
+        return finish(ReservationResult.reserved(request, hold.getRow(), hold.getFirstSeat()), 1, start, theater,
+                event);
+    }
+
+    /**
+     * Finishes a booking dialog that held standard seats as soon as the party said how many seats it
+     * needs, before it was asked about wheelchair access. The hold is confirmed if it matches what the
+     * party needs; otherwise it is released and the party is placed like a new reservation.
+     *
+     * @param theater              The theater in which seats will be reserved.
+     * @param hold                 The seats held for the party, or null if none could be held.
+     * @param numSeats             The number of seats to be reserved.
+     * @param name                 The name of the party reserving seats.
+     * @param wheelchairAccessible Whether wheelchair accessible seats are required.
+     * @return The result of the reservation.
+     */
+    public ReservationResult reserve(Theater theater, SeatHold hold, int numSeats, String name,
+                                     boolean wheelchairAccessible) {
+        if (hold != null && hold.getNumSeats() == numSeats && hold.isWheelchairAccessible() == wheelchairAccessible) {
+            return confirm(hold, name);
+        }
+        if (hold != null) {
+            release(hold);
+        }
+        return reserve(theater, numSeats, name, wheelchairAccessible);
+    }
+
+    /**
+     * Gives up a hold and frees its seats. Does nothing if the hold was confirmed, released or expired.
+     *
+     * @param hold The hold to give up.
+     */
+    public void release(SeatHold hold) {
+        if (hold.finish(SeatHold.RELEASED)) {
+            holds.remove(hold);
+            releaseHeldSeats(hold);
+        }
+    }
+
+    /**
+     * Frees the seats of every hold whose time ran out. Holds only expire when this service is used,
+     * so a server that may sit idle calls this from its own loop every now and then.
+     *
+     * @return The number of holds that expired.
+     */
+    public int expireHolds() {
+        int expired = 0;
+        for (SeatHold hold : holds.expire(System.nanoTime())) {
+            if (hold.finish(SeatHold.EXPIRED)) {
+                releaseHeldSeats(hold);
+                expired++;
             }
         }
+        return expired;
+    }
 
-        if (numReserved == numSeats) {
-            System.out.println("I’ve reserved " + numSeats + " seats for you at the Roxy in row " + bestRow.getRowNumber() + ", " + name + ".");
-        } else {
-            System.out.println("Sorry, we don’t have that many seats together for you.");
-            reservedSeats.forEach(Seat::notReserved);
+    private void releaseHeldSeats(SeatHold hold) {
+        hold.getRow().releaseSeats(hold.getFirstSeat(), hold.getNumSeats());
+        publish(SeatChange.Type.RELEASE, hold.getTheater(), hold.getRow().getRowNumber(),
+                hold.getFirstSeat(), hold.getNumSeats(), null);
+    }
+
+    /**
+     * Getter for the placement strategy
+     * @return where in the chosen row parties are seated, first fit unless changed
+     */
+    public PlacementStrategy getPlacementStrategy() {
+        return placementStrategy;
+    }
+
+    /**
+     * Changes where in the chosen row parties are seated, for reservations made from now on. The row
+     * itself is still the one closest to the center that can hold the party.
+     * @param placementStrategy the strategy, for example StandardPlacement.BEST_FIT
+     * @throws IllegalArgumentException if the strategy is null
+     */
+    public void setPlacementStrategy(PlacementStrategy placementStrategy) throws IllegalArgumentException {
+        if (placementStrategy == null) {
+            throw new IllegalArgumentException("A placement strategy is required.");
+        }
+        this.placementStrategy = placementStrategy;
+    }
+
+    /**
+     * Getter for the metrics of this service
+     * @return the metrics, updated live
+     */
+    public ReservationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Getter for the seat changes of this service. Every reservation, hold, release and rollback is
+     * published on it once the seats have changed; subscribe to it to follow them.
+     * @return the bus the seat changes are published on
+     */
+    public SeatChangeBus getSeatChanges() {
+        SeatChangeBus bus = seatChanges;
+        if (bus == null) {
+            synchronized (this) {
+                bus = seatChanges;
+                if (bus == null) {
+                    bus = new SeatChangeBus(SEAT_CHANGE_CAPACITY);
+                    seatChanges = bus;
+                }
+            }
         }
+        return bus;
+    }
+
+    /**
+     * Publishes a seat change if anyone asked for the seat changes of this service.
+     */
+    private void publish(SeatChange.Type type, Theater theater, int rowNumber, int firstSeat, int numSeats,
+                         String name) {
+        SeatChangeBus bus = seatChanges;
+        if (bus != null) {
+            bus.publish(type, theater, rowNumber, firstSeat, numSeats, name);
+        }
+    }
+
+    /**
+     * Releases the seats of a successful reservation, for example when the party cancels.
+     * The seats are only freed while every one of them still belongs to the party, so a result
+     * that was released or cancelled already cannot free seats another party has taken since.
+     * With a journal, the release is appended before the seats are freed, so another party
+     * taking the seats always comes after the release in the journal. Only the check, the append
+     * and the freeing are done under the release lock; waiting for the release to reach the disk
+     * happens after it, so concurrent releases share one write.
+     *
+     * @param result The result of the reservation to release.
+     * @throws IllegalArgumentException if the reservation did not succeed or was released already.
+     * @throws UncheckedIOException if the release could not be written to the journal. The seats
+     *                              may be free then, and a restart may give them back to the party.
+     */
+    public void release(ReservationResult result) throws IllegalArgumentException {
+        if (!result.isReserved()) {
+            throw new IllegalArgumentException("Only a successful reservation can be released.");
+        }
+        Row row = result.getRow();
+        int numSeats = result.getRequest().getNumSeats();
+        long position = MIN_SEAT;
+        try {
+            synchronized (releaseLock) {
+                if (!row.isReservedFor(result.getFirstSeat(), numSeats, result.getRequest().getName())) {
+                    throw new IllegalArgumentException("The reservation was released already.");
+                }
+                if (journal != null) {
+                    position = journal.appendRelease(row.getRowNumber(), result.getFirstSeat(), numSeats);
+                }
+                row.releaseSeats(result.getFirstSeat(), numSeats);
+            }
+            if (journal != null) {
+                journal.awaitDurable(position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record the release.", e);
+        }
+        metrics.recordRelease(numSeats);
+        publish(SeatChange.Type.RELEASE, row.getTheater(), row.getRowNumber(), result.getFirstSeat(),
+                numSeats, result.getRequest().getName());
+    }
+
+    /**
+     * Cancels every seat a party holds in the theater. The seats come from the theater's party
+     * registry, so the work is proportional to the party's seats rather than the theater's size.
+     * With a journal, all releases are appended before any seat is freed, and made durable together
+     * after the release lock is left.
+     *
+     * @param theater The theater object.
+     * @param name    The name of the party.
+     * @return The number of seats released, 0 if the party holds none.
+     * @throws UncheckedIOException if the releases could not be written to the journal. The seats
+     *                              may be free then, and a restart may give them back to the party.
+     */
+    public int cancel(Theater theater, String name) {
+        PartyRegistry parties = theater.getParties();
+        int[] seatKeys;
+        long position = MIN_SEAT;
+        try {
+            synchronized (releaseLock) {
+                seatKeys = parties.getSeatKeys(parties.findId(name));
+                if (journal != null) {
+                    for (int seatKey : seatKeys) {
+                        position = journal.appendRelease(PartyRegistry.rowNumberOf(seatKey),
+                                PartyRegistry.seatIndexOf(seatKey), 1);
+                    }
+                }
+                for (int seatKey : seatKeys) {
+                    theater.getRows().get(PartyRegistry.rowNumberOf(seatKey) - 1)
+                            .releaseSeats(PartyRegistry.seatIndexOf(seatKey), 1);
+                }
+            }
+            if (journal != null && seatKeys.length > MIN_SEAT) {
+                journal.awaitDurable(position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record the cancellation.", e);
+        }
+        for (int seatKey : seatKeys) {
+            int rowNumber = PartyRegistry.rowNumberOf(seatKey);
+            int seatIndex = PartyRegistry.seatIndexOf(seatKey);
+            publish(SeatChange.Type.RELEASE, theater, rowNumber, seatIndex, 1, name);
+        }
+        metrics.recordRelease(seatKeys.length);
+        return seatKeys.length;
+    }
+
+    /**
+     * Records a reservation in the journal and waits until it is on disk, then publishes it. If it
+     * cannot be recorded, the seats are given back and the caller finishes the attempt as
+     * NOT_RECORDED. The reserve record may have reached the file even so, so a release record is
+     * written for the seats before they are freed; replay then frees them again before anyone else
+     * can take them.
+     *
+     * @param theater   The theater the seats belong to.
+     * @param row       The row the seats were claimed in.
+     * @param firstSeat Index of the first claimed seat.
+     * @param request   The party the seats were claimed for.
+     * @return true if the reservation was recorded, false if the seats were given back.
+     */
+    private boolean recordReserve(Theater theater, Row row, int firstSeat, ReservationRequest request) {
+        if (journal != null) {
+            try {
+                journal.awaitDurable(journal.appendReserve(row.getRowNumber(), firstSeat,
+                        request.getNumSeats(), request.getName()));
+            } catch (IOException e) {
+                try {
+                    journal.awaitDurable(journal.appendRelease(row.getRowNumber(), firstSeat, request.getNumSeats()));
+                } catch (IOException releaseFailure) {
+                    // the journal is broken; the reserve record most likely never reached it either
+                }
+                row.releaseSeats(firstSeat, request.getNumSeats());
+                metrics.recordRollback(request.getNumSeats());
+                publish(SeatChange.Type.ROLLBACK, theater, row.getRowNumber(), firstSeat,
+                        request.getNumSeats(), request.getName());
+                return false;
+            }
+        }
+        publish(SeatChange.Type.RESERVE, theater, row.getRowNumber(), firstSeat, request.getNumSeats(),
+                request.getName());
+        return true;
     }
 
 
@@ -93,18 +518,31 @@ public class ReservationService {
 
     public boolean checkValidSeatNumber(String usersInputForSeat) {
         try {
-            int seat = Integer.parseInt(usersInputForSeat);
-            return seat > MIN_SEAT && seat <= theater.getTotalRows();
+            return isValidSeatNumber(Integer.parseInt(usersInputForSeat));
         } catch (NumberFormatException e) {
             return false;
         }
     }
 
+    /**
+     * method to check if an already parsed seat number is valid, see checkValidSeatNumber
+     * @param seat the seat number
+     * @return true if it is valid, otherwise false
+     */
+    boolean isValidSeatNumber(int seat) {
+        return seat > MIN_SEAT && seat <= theater.getTotalRows();
+    }
+
     /**
      * show the seat map
      */
     public void displaySeatMap() {
-        System.out.println(theater);
+        try {
+            theater.writeSeatMap(System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not show the seat map.", e);
+        }
+        System.out.println();
     }
 
     /**
@@ -121,72 +559,43 @@ public class ReservationService {
         return true;
     }
 
-
-    /**
-     * print the message to show that a reservation is made successfully.
-     */
-    public void reservationConfirmation() {
-        System.out.println("Reservation confirmed!");
-    }
-
     /**
-     * Checks if the specified row has enough continuous empty seats to accommodate the requested number.
+     * Checks if a party of this size can be seated at all: the number must be valid for reservation
+     * and some row, standard or wheelchair accessible, must have enough adjacent free seats. The
+     * theater keeps its largest free blocks up to date, so this takes constant time and a sold-out
+     * theater can turn a request away before the user is asked for a name.
      *
-     * @param row      The row to check for availability.
-     * @param numSeats The number of continuous seats required.
-     * @return True if there are enough continuous empty seats, otherwise false.
+     * @param theater  The Theater object where the reservation is being made.
+     * @param numSeats The number of seats a user is trying to reserve.
+     * @return true if the party might get seats, false if it certainly cannot.
      */
-    private boolean hasEnoughSeats(Row row, int numSeats) {
-        List<Seat> availableSeatsInRow = row.stream()
-                .filter(seat -> seat.getReservedFor() == null)
-                .collect(Collectors.toList());
-
-        for (int i = 0; i <= availableSeatsInRow.size() - numSeats; i++) {
-            if (isContinuousEmpty(availableSeatsInRow.subList(i, i + numSeats))) {
-                return true;
-            }
-        }
-        return false;
+    public boolean hasSeatsTogether(Theater theater, int numSeats) {
+        return isValidNumberForReservation(theater, numSeats) && theater.hasContinuousSeats(numSeats);
     }
 
+
     /**
-     * Checks if all the seats in the given list are empty (= not reserved).
-     *
-     * @param seats A list of seats to check.
-     * @return True if all seats are empty, otherwise false.
+     * print the message to show that a reservation is made successfully.
      */
-    private boolean isContinuousEmpty(List<Seat> seats) {
-        return seats.stream().allMatch(seat -> seat.getReservedFor() == null);
+    public void reservationConfirmation() {
+        System.out.println("Reservation confirmed!");
     }
 
-    //private int[] findContinuousSeats(Row row, int numSeats) {
-    //    List<Seat> seats = row;
-    //    for (int i = 0; i <= seats.size() - numSeats; i++) {
-    //        if (isContinuousEmpty(seats.subList(i, i + numSeats))) {
-    //            return new int[] { i, i + numSeats - 1 };
-    //        }
-    //    }
-    //    return null;
-    //}
-
     /**
      * Finds the best row based on the number of continuous seats required and the proximity to the center row.
-     * It also considers whether the row should be wheelchair accessible or not.
+     * It also considers whether the row should be wheelchair accessible or not. The theater keeps its rows
+     * indexed by distance to the center and by their largest block of free seats, so no sorting is needed.
      *
-     * @param rows                List of rows to choose from.
+     * @param theater             The theater to choose a row from.
      * @param numSeats            Number of continuous seats required.
      * @param wheelchairAccessible True if the row should be wheelchair accessible, otherwise false.
      * @return The best matching row or null if no suitable row is found.
      */
-    private Row findBestRow(List<Row> rows, int numSeats, boolean wheelchairAccessible) {
-        int centerRow = theater.getRows().size() / CUT_BY_MIDDLE;
-
-        return rows.stream()
-                .sorted(Comparator.comparingInt(row -> Math.abs(row.getRowNumber() - centerRow)))
-                .filter(row -> hasEnoughSeats(row, numSeats))
-                .filter(row -> wheelchairAccessible == row.isWheelchairAccessible())
-                .findFirst()
-                .orElse(null);
+    private Row findBestRow(Theater theater, int numSeats, boolean wheelchairAccessible) {
+        long start = System.nanoTime();
+        Row bestRow = theater.findBestRow(numSeats, wheelchairAccessible);
+        metrics.recordFindBestRow(System.nanoTime() - start);
+        return bestRow;
     }
 
     @Override
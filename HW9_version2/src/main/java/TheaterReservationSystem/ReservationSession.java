@@ -0,0 +1,178 @@
+package TheaterReservationSystem;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReservationSession is the conversation with one remote user of a ReservationServer. It speaks
+ * the same reserve / show / help / done commands as ReservationView, including the name and
+ * wheelchair follow-up questions, but as a state machine fed one line at a time, so a single
+ * thread can serve many sessions. Answers are queued as byte buffers for the server to write.
+ */
+final class ReservationSession {
+
+    private static final String DELIMITER = "\\s+";
+    private static final int COMMAND_POSITION_SEAT = 1;
+    private static final int COMMAND_RESERVE_MINIMAL_LENGTH = 2;
+    private static final String COMMAND_RESERVE = "reserve";
+    private static final String COMMAND_SHOW = "show";
+    private static final String COMMAND_DONE = "done";
+    private static final String COMMAND_HELP = "help";
+    private static final String ANSWER_YES = "yes";
+    private static final String ANSWER_NO = "no";
+    private static final String NEW_LINE = "\n";
+    static final String PROMPT_COMMAND = "What would you like to do?";
+    static final String PROMPT_NAME = "What’s your name?";
+    static final String PROMPT_WHEELCHAIR = "Do you need wheelchair accessible seats? (yes/no)";
+    static final String GOODBYE = "Thank you! Have a nice day!";
+
+    /**
+     * the question the session is waiting to have answered
+     */
+    private enum State {
+        COMMAND, NAME, WHEELCHAIR, DONE
+    }
+
+    private final Theater theater;
+    private final ReservationService reservationService;
+    private final Deque<ByteBuffer> output = new ArrayDeque<>();
+    private State state = State.COMMAND;
+    private int pendingSeats;
+    private String pendingName;
+    /**
+     * seats kept aside while the user answers the name and wheelchair questions
+     */
+    private SeatHold pendingHold;
+
+    /**
+     * Constructs a new session and queues the first prompt.
+     * @param theater the theater to book
+     * @param reservationService the service handling reservations for the theater
+     */
+    ReservationSession(Theater theater, ReservationService reservationService) {
+        this.theater = theater;
+        this.reservationService = reservationService;
+        send(PROMPT_COMMAND);
+    }
+
+    /**
+     * Handles one line sent by the user and queues the answer.
+     * @param line the line, without its line terminator
+     */
+    void handleLine(String line) {
+        switch (state) {
+            case COMMAND:
+                handleCommand(line.trim().toLowerCase());
+                break;
+            case NAME:
+                pendingName = line.trim();
+                state = State.WHEELCHAIR;
+                send(PROMPT_WHEELCHAIR);
+                break;
+            case WHEELCHAIR:
+                handleWheelchairAnswer(line.trim().toLowerCase());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void handleCommand(String command) {
+        if (command.contains(COMMAND_RESERVE)) {
+            handleReserve(command);
+            return;
+        }
+        if (command.contains(COMMAND_SHOW)) {
+            output.add(theater.seatMapBuffer());
+            send("");
+        } else if (command.contains(COMMAND_DONE)) {
+            state = State.DONE;
+            send(GOODBYE);
+            return;
+        } else if (command.contains(COMMAND_HELP)) {
+            send(String.join(NEW_LINE, ReservationView.helpLines(theater)));
+        } else {
+            send("Please enter a valid command. To get command guidance, please enter 'help' in console");
+        }
+        send(PROMPT_COMMAND);
+    }
+
+    private void handleReserve(String command) {
+        String[] split = command.split(DELIMITER);
+        if (split.length < COMMAND_RESERVE_MINIMAL_LENGTH
+                || !reservationService.checkValidSeatNumber(split[COMMAND_POSITION_SEAT])) {
+            send("Please enter a valid seat number to reserve");
+            send(PROMPT_COMMAND);
+            return;
+        }
+        int numSeats = Integer.parseInt(split[COMMAND_POSITION_SEAT]);
+        if (!reservationService.hasSeatsTogether(theater, numSeats)) {
+            send("Sorry, we don’t have that many seats together for you.");
+            send(PROMPT_COMMAND);
+            return;
+        }
+        pendingSeats = numSeats;
+        pendingHold = reservationService.hold(theater, numSeats, false, ReservationService.DIALOG_HOLD_SECONDS,
+                TimeUnit.SECONDS);
+        state = State.NAME;
+        send(PROMPT_NAME);
+    }
+
+    private void handleWheelchairAnswer(String answer) {
+        if (!ANSWER_YES.equals(answer) && !ANSWER_NO.equals(answer)) {
+            send("Invalid input. Please answer with 'yes' or 'no'.");
+            send(PROMPT_WHEELCHAIR);
+            return;
+        }
+        ReservationResult result = reservationService.reserve(theater, pendingHold, pendingSeats, pendingName,
+                ANSWER_YES.equals(answer));
+        pendingHold = null;
+        pendingName = null;
+        state = State.COMMAND;
+        send(result.getMessage());
+        send(PROMPT_COMMAND);
+    }
+
+    /**
+     * Ends the session when the user goes away, giving up seats held for an unfinished booking.
+     */
+    void close() {
+        if (pendingHold != null) {
+            reservationService.release(pendingHold);
+            pendingHold = null;
+        }
+        state = State.DONE;
+    }
+
+    private void send(String line) {
+        output.add(ByteBuffer.wrap((line + NEW_LINE).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Getter for the answers waiting to be written, in order
+     * @return the queued buffers, written buffers are removed by the caller
+     */
+    Deque<ByteBuffer> getOutput() {
+        return output;
+    }
+
+    /**
+     * Checks if the user ended the session with "done".
+     * @return true if the session is over, otherwise false
+     */
+    boolean isDone() {
+        return state == State.DONE;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationSession{" +
+                "state=" + state +
+                ", pendingSeats=" + pendingSeats +
+                ", pendingName='" + pendingName + '\'' +
+                '}';
+    }
+}
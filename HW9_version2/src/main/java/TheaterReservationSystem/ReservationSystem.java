@@ -1,7 +1,10 @@
 package TheaterReservationSystem;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Scanner;
 
 /**
  * ReservationSystem  takes input from user, run the reservation service as needed for a theater.
@@ -9,20 +12,74 @@ import java.util.Scanner;
 public class ReservationSystem {
 
     private static final String DELIMITER = "\\s+";
+    private static final String OPTION_JOURNAL = "--journal";
+    private static final String OPTION_SHARED = "--shared";
+    private static final String OPTION_PORT = "--port";
+    private static final String OPTION_REPLAY = "--replay";
+    private static final String THEATER_NAME = "Roxy";
+    private static final int TOTAL_ROWS = 15;
+    private static final int SEATS_IN_A_ROW = 10;
+    private static final List<Integer> WHEELCHAIR_ROWS = List.of(6, 10);
+    private static final int OPTION_VALUE_POSITION = 1;
 
     /**
      * This class demonstrates the usage of the Theater, ReservationService, and ReservationView classes
      * to facilitate user interaction for reserving seats in a theater.
      *
+     * Start with "--journal &lt;file&gt;" to keep the bookings in a journal file: the journal is replayed
+     * into the theater at startup and every new booking is appended to it. Start with "--shared &lt;file&gt;"
+     * to keep the seat occupancy in a memory-mapped file, so several processes can book the same theater.
+     * Start with "--port &lt;port&gt;" to serve the theater over the network instead of the console, for
+     * ReservationClient or any line-based client such as telnet. Start with "--replay &lt;file&gt;" to run a
+     * recorded file of console input as fast as possible and print how many commands per second it took.
+     *
      * @param args The command-line arguments passed to the program
      * @throws IllegalArgumentException If invalid arguments are provided during theater initialization.
      * @throws NoAccessibleRowsException If the specified wheelchair rows are not accessible in the theater.
+     * @throws IOException If the journal, the shared occupancy file or the command file cannot be read or written, or the
+     *     port cannot be bound.
      */
-    public static void main(String[] args) throws IllegalArgumentException, NoAccessibleRowsException {
+    public static void main(String[] args) throws IllegalArgumentException, NoAccessibleRowsException, IOException {
         // Initialize the Model new Theater(Name, NumberOfRow, NumberOfSeatInEachRow, WheelChairRows)
 
-        Theater theater = new Theater("Roxy", 15, 10, List.of(6,10));
+        if (args.length > OPTION_VALUE_POSITION && OPTION_SHARED.equals(args[0])) {
+            Path occupancyPath = Path.of(args[OPTION_VALUE_POSITION]);
+            try (MappedOccupancyStore occupancy = MappedOccupancyStore.open(occupancyPath, TOTAL_ROWS, SEATS_IN_A_ROW)) {
+                Theater sharedTheater = new Theater(THEATER_NAME, TOTAL_ROWS, SEATS_IN_A_ROW, WHEELCHAIR_ROWS, occupancy);
+                new ReservationView(sharedTheater, new ReservationService(sharedTheater)).startUserInteraction();
+            }
+            return;
+        }
+
+        Theater theater = new Theater(THEATER_NAME, TOTAL_ROWS, SEATS_IN_A_ROW, WHEELCHAIR_ROWS);
+
+
+        if (args.length > OPTION_VALUE_POSITION && OPTION_REPLAY.equals(args[0])) {
+            Path commandPath = Path.of(args[OPTION_VALUE_POSITION]);
+            System.out.println(CommandReplay.replay(commandPath, theater, new ReservationService(theater), null));
+            return;
+        }
+
+        if (args.length > OPTION_VALUE_POSITION && OPTION_PORT.equals(args[0])) {
+            InetSocketAddress address = new InetSocketAddress(Integer.parseInt(args[OPTION_VALUE_POSITION]));
+            try (ReservationServer server = ReservationServer.open(theater, new ReservationService(theater), address)) {
+                System.out.println("Serving the " + THEATER_NAME + " on port " + server.getPort());
+                server.run();
+            }
+            return;
+        }
 
+        if (args.length > OPTION_VALUE_POSITION && OPTION_JOURNAL.equals(args[0])) {
+            Path journalPath = Path.of(args[OPTION_VALUE_POSITION]);
+            if (Files.exists(journalPath)) {
+                ReservationJournal.replay(journalPath, theater);
+            }
+            try (ReservationJournal journal = ReservationJournal.open(journalPath)) {
+                ReservationService reservationService = new ReservationService(theater, journal);
+                new ReservationView(theater, reservationService).startUserInteraction();
+            }
+            return;
+        }
 
         ReservationService reservationService = new ReservationService(theater);
         // Initialize the View ReservationService
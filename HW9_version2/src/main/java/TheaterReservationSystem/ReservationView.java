@@ -1,7 +1,9 @@
 package TheaterReservationSystem;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents the user interface for making reservations in a theater, design as View in MVC Architect
@@ -91,10 +93,13 @@ public class ReservationView {
         if (reservationService.checkValidSeatNumber(split[COMMAND_POSITION_SEAT])) {
             int reservedSeatNumber = Integer.parseInt(split[COMMAND_POSITION_SEAT]);
 
-            if (!reservationService.isValidNumberForReservation(theater, reservedSeatNumber)) {
+            if (!reservationService.hasSeatsTogether(theater, reservedSeatNumber)) {
                 System.out.println("Sorry, we don’t have that many seats together for you.");
                 return;
             }
+            // Keep seats aside while the user answers, so they cannot be taken in the meantime
+            SeatHold hold = reservationService.hold(theater, reservedSeatNumber, false,
+                    ReservationService.DIALOG_HOLD_SECONDS, TimeUnit.SECONDS);
             System.out.println("What’s your name?");
             String name = inputScanner.nextLine().trim();
 
@@ -113,7 +118,9 @@ public class ReservationView {
             }
 
             // Reserve seats with the given parameters
-            reservationService.reserveSeats(theater, reservedSeatNumber, name, wheelchairAccessible);
+            ReservationResult result = reservationService.reserve(theater, hold, reservedSeatNumber, name,
+                    wheelchairAccessible);
+            System.out.println(result.getMessage());
 
         } else {
             System.out.println("Please enter a valid seat number to reserve");
@@ -124,16 +131,28 @@ public class ReservationView {
      * Helper method to print a help message guiding the user on how to use the system.
      */
     private void printHelpMessage() {
+        for (String line : helpLines(theater)) {
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Builds the lines of the help message, shared with the network sessions.
+     * @param theater the theater the help message describes
+     * @return the lines of the help message
+     */
+    static List<String> helpLines(Theater theater) {
         int seatsInARow = theater.getRows().get(MIN).getNumOfSeatInARow();
-        System.out.println( "Theater "+ theater.getName() +" has total " + theater.getTotalRows() + " rows with " + seatsInARow
-                + " seats for each row. The row number " + theater.getWheelchairRows() + " is(are) row(s) for wheelchairs");
-        System.out.println(" ");
-        System.out.println("Command Guidance:");
-        System.out.println(COMMAND_RESERVE + ": enter '" + COMMAND_RESERVE + " <numberOfSeats>' to reserve seat(s).");
-        System.out.println(COMMAND_SHOW + ": display the current available seating in the theater, "+
+        return List.of(
+                "Theater "+ theater.getName() +" has total " + theater.getTotalRows() + " rows with " + seatsInARow
+                + " seats for each row. The row number " + theater.getWheelchairRows() + " is(are) row(s) for wheelchairs",
+                " ",
+                "Command Guidance:",
+                COMMAND_RESERVE + ": enter '" + COMMAND_RESERVE + " <numberOfSeats>' to reserve seat(s).",
+                COMMAND_SHOW + ": display the current available seating in the theater, "+
                 "If you want to check the actual location of the seat, "
-                + "please enter '" + COMMAND_SHOW + "' after receiving the confirmation message.");
-        System.out.println(COMMAND_DONE + ": shut down the system.");
+                + "please enter '" + COMMAND_SHOW + "' after receiving the confirmation message.",
+                COMMAND_DONE + ": shut down the system.");
     }
 
 
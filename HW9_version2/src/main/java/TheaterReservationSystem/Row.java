@@ -1,13 +1,20 @@
 package TheaterReservationSystem;
 
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * Row is a class that extends the Seat class. It contains information about rows in a theater.
- * A row is a list of seats.
+ * A row is a list of seats. The row only keeps compact per-seat state, its occupancy bitmap and
+ * the party ID of each seat; Seat objects are lightweight views created when a caller asks for
+ * one, so an empty row costs a few dozen bytes however wide it is.
  */
-public class Row extends ArrayList<Seat> {
+public class Row extends AbstractList<Seat> implements RandomAccess {
 
   /**
    * row number, as int
@@ -29,6 +36,101 @@ public class Row extends ArrayList<Seat> {
    * Adjust the seat position
    */
   private static final int ADJUSTING_SCALE_FOR_SEAT = 1;
+  /**
+   * row numbers below this are padded with a space in the seat map
+   */
+  private static final int SINGLE_DIGIT_LIMIT = 10;
+  /**
+   * number of letters used for seat labels, A to Z
+   */
+  private static final int LETTERS = 26;
+  /**
+   * widest row with shared seat labels, A to Z and then AA to ZZ
+   */
+  static final int MAX_NUM_OF_SEAT = LETTERS + LETTERS * LETTERS;
+  /**
+   * labels of every seat position, shared by all rows
+   */
+  private static final String[] SEAT_LABELS = seatLabels(MAX_NUM_OF_SEAT);
+  /**
+   * shift turning a seat index into the index of its occupancy word
+   */
+  private static final int WORD_SHIFT = 6;
+  /**
+   * Returned by the seat search when no block of free seats is large enough.
+   */
+  public static final int NO_SEATS_FOUND = -1;
+  /**
+   * Storage holding the occupancy bitmap of this row, one bit per seat spread over as many words as
+   * the row needs: bit i % 64 of word i / 64 is set when the seat at index i is reserved. Seats
+   * are claimed by compare-and-set on the words, so concurrent callers can never get the same seat.
+   */
+  private final OccupancyStore occupancy;
+  /**
+   * index of this row's first word in the occupancy storage
+   */
+  private final int occupancyWord;
+  /**
+   * number of words holding this row's bitmap
+   */
+  private final int numWords;
+  /**
+   * registry of the parties holding seats in this row
+   */
+  private final PartyRegistry parties;
+  /**
+   * ID of the party holding each seat, PartyRegistry.NO_PARTY for free seats. Allocated when the
+   * first seat of the row is reserved.
+   */
+  private volatile int[] partyIds;
+  /**
+   * the theater this row belongs to, or null if the row was created on its own.
+   */
+  private Theater theater;
+  /**
+   * position of this row in its theater's row index
+   */
+  private int indexRank;
+  /**
+   * this row's last rendered line of the seat map, reused while the occupancy stays the same
+   */
+  private volatile RenderedLine renderedLine;
+  /**
+   * copy of this row's bitmap as of its last committed change. Every change publishes a new array
+   * and published arrays are never modified, so readers can hold on to one.
+   */
+  private volatile long[] committedOccupancy;
+  /**
+   * changes spanning several words that were started and finished. While the two differ one of
+   * them is half done and the words must not be published.
+   */
+  private volatile int wideChangesStarted;
+  private volatile int wideChangesFinished;
+  /**
+   * number of changes made to the seats of this row, see getModificationStamp
+   */
+  private volatile long modificationStamp;
+  /**
+   * the last hash code computed, reused while the modification stamp stays the same
+   */
+  private volatile StampedHash stampedHash;
+
+  private static final VarHandle COMMITTED_OCCUPANCY;
+  private static final VarHandle WIDE_CHANGES_STARTED;
+  private static final VarHandle WIDE_CHANGES_FINISHED;
+  private static final VarHandle MODIFICATION_STAMP;
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      COMMITTED_OCCUPANCY = lookup.findVarHandle(Row.class, "committedOccupancy", long[].class);
+      WIDE_CHANGES_STARTED = lookup.findVarHandle(Row.class, "wideChangesStarted", int.class);
+      WIDE_CHANGES_FINISHED = lookup.findVarHandle(Row.class, "wideChangesFinished", int.class);
+      MODIFICATION_STAMP = lookup.findVarHandle(Row.class, "modificationStamp", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
 
   /**
    * Constructs a new Row object using given row number, number of seat in a orw and whether if it is wheelchair accessible.
@@ -37,13 +139,81 @@ public class Row extends ArrayList<Seat> {
    * @param wheelchairAccessible check whether it is wheelchair accessible.
    */
   public Row(int rowNumber, int numOfSeatInARow, boolean wheelchairAccessible) {
+    this(rowNumber, numOfSeatInARow, wheelchairAccessible,
+        new HeapOccupancyStore(wordsFor(numOfSeatInARow)), 0, new PartyRegistry());
+  }
+
+  /**
+   * Constructs a new Row object whose occupancy lives in the given storage.
+   * @param rowNumber number to indicate the row's position, starting from 1.
+   * @param numOfSeatInARow number of seat in a row, as int.
+   * @param wheelchairAccessible check whether it is wheelchair accessible.
+   * @param occupancy storage holding the occupancy bitmap
+   * @param occupancyWord index of this row's first word in the storage
+   * @param parties registry of the parties holding seats
+   */
+  Row(int rowNumber, int numOfSeatInARow, boolean wheelchairAccessible, OccupancyStore occupancy,
+      int occupancyWord, PartyRegistry parties) {
+    this.occupancy = occupancy;
+    this.occupancyWord = occupancyWord;
+    this.numWords = wordsFor(numOfSeatInARow);
+    this.parties = parties;
     this.rowNumber = rowNumber;
     this.wheelchairAccessible = wheelchairAccessible;
     this.numOfSeatInARow = numOfSeatInARow;
+    this.committedOccupancy = occupancyBits();
+  }
+
+  /**
+   * Returns a view of the seat at the given index. Views are created on every call and read
+   * their state from the row, so two views of the same seat are always equal.
+   * @param index index of the seat, starting from 0
+   * @return the seat
+   * @throws IndexOutOfBoundsException if the index is outside the row
+   */
+  @Override
+  public Seat get(int index) {
+    Objects.checkIndex(index, numOfSeatInARow);
+    String label = index < MAX_NUM_OF_SEAT ? SEAT_LABELS[index] : seatLabel(index);
+    return new Seat(label, this, index);
+  }
+
+  @Override
+  public int size() {
+    return numOfSeatInARow;
+  }
 
-    for (int i = MINIMUM_ROW; i <= numOfSeatInARow; i++) {
-      this.add(new Seat(String.valueOf((char) ('A' + i - ADJUSTING_SCALE_FOR_SEAT)), null));
+  /**
+   * Returns the number of occupancy words a row with the given number of seats needs.
+   * @param numOfSeatInARow number of seat in a row, as int.
+   * @return number of words as int
+   */
+  static int wordsFor(int numOfSeatInARow) {
+    return (numOfSeatInARow + Long.SIZE - 1) >>> WORD_SHIFT;
+  }
+
+  /**
+   * Returns the label of a seat, counting like spreadsheet columns: A to Z, then AA, AB, ...
+   * @param index index of the seat, starting from 0
+   * @return the seat label
+   */
+  static String seatLabel(int index) {
+    StringBuilder label = new StringBuilder();
+    for (int n = index + ADJUSTING_SCALE_FOR_SEAT; n > 0; n = (n - 1) / LETTERS) {
+      label.insert(0, (char) ('A' + (n - 1) % LETTERS));
     }
+    return label.toString();
+  }
+
+  /**
+   * helper function to build the shared seat labels.
+   */
+  private static String[] seatLabels(int numLabels) {
+    String[] labels = new String[numLabels];
+    for (int i = 0; i < numLabels; i++) {
+      labels[i] = seatLabel(i);
+    }
+    return labels;
   }
 
   /**
@@ -70,6 +240,656 @@ public class Row extends ArrayList<Seat> {
     return wheelchairAccessible;
   }
 
+  /**
+   * Links this row to the theater that holds it, so the theater can keep its row index up to date.
+   * @param theater the theater holding this row
+   */
+  void attach(Theater theater) {
+    this.theater = theater;
+  }
+
+  /**
+   * Getter for the theater holding this row
+   * @return the theater, or null if the row was created on its own
+   */
+  Theater getTheater() {
+    return theater;
+  }
+
+  /**
+   * Getter for the position of this row in its theater's row index
+   * @return index rank as int
+   */
+  int getIndexRank() {
+    return indexRank;
+  }
+
+  /**
+   * Setter for the position of this row in its theater's row index
+   * @param indexRank index rank as int
+   */
+  void setIndexRank(int indexRank) {
+    this.indexRank = indexRank;
+  }
+
+  /**
+   * Counts the free seats of this row, a word at a time.
+   * @return number of free seats as int
+   */
+  public int getFreeSeats() {
+    int reserved = 0;
+    for (int word = 0; word < numWords; word++) {
+      reserved += Long.bitCount(occupancy.getWord(occupancyWord + word) & wordMask(word));
+    }
+    return numOfSeatInARow - reserved;
+  }
+
+  /**
+   * Returns the size of the largest block of adjacent free seats in this row. Free runs are walked
+   * a word at a time, and a run reaching the top of one word carries on into the next.
+   * @return largest number of adjacent free seats, 0 if the row is full
+   */
+  public int getLargestFreeRun() {
+    int largest = 0;
+    int carried = 0;
+    for (int word = 0; word < numWords; word++) {
+      long free = freeWord(word);
+      int lowRun = Long.numberOfTrailingZeros(~free);
+      largest = Math.max(largest, carried + lowRun);
+      if (lowRun == Long.SIZE) {
+        carried += Long.SIZE;
+        continue;
+      }
+      carried = Long.numberOfLeadingZeros(~free);
+      free &= -1L << lowRun;
+      while (free != 0) {
+        int start = Long.numberOfTrailingZeros(free);
+        int length = Long.numberOfTrailingZeros(~(free >>> start));
+        largest = Math.max(largest, length);
+        free = start + length >= Long.SIZE ? 0 : free & (-1L << (start + length));
+      }
+    }
+    return largest;
+  }
+
+  /**
+   * Finds the leftmost block of adjacent free seats that can hold the party.
+   * @param numSeats number of adjacent seats required
+   * @return index of the first seat in the block (starting from 0), or NO_SEATS_FOUND
+   */
+  public int findContinuousSeats(int numSeats) {
+    return findContinuousSeats(numSeats, StandardPlacement.FIRST_FIT);
+  }
+
+  /**
+   * Finds the block of adjacent free seats the placement strategy picks for the party.
+   * @param numSeats number of adjacent seats required
+   * @param strategy where in the row the party should sit
+   * @return index of the first seat in the block (starting from 0), or NO_SEATS_FOUND
+   */
+  public int findContinuousSeats(int numSeats, PlacementStrategy strategy) {
+    if (numSeats < MINIMUM_ROW || numSeats > numOfSeatInARow) {
+      return NO_SEATS_FOUND;
+    }
+    return findBlock(numSeats, strategy);
+  }
+
+  /**
+   * Checks if the row has a block of adjacent free seats that can hold the party.
+   * @param numSeats number of adjacent seats required
+   * @return true if such a block exists, otherwise false
+   */
+  public boolean hasContinuousSeats(int numSeats) {
+    return findContinuousSeats(numSeats) != NO_SEATS_FOUND;
+  }
+
+  /**
+   * Finds the leftmost block of adjacent free seats and reserves it for a party atomically. If
+   * another caller takes any of the seats in between, the search is retried on the new occupancy.
+   * @param numSeats number of adjacent seats required
+   * @param name name of the party
+   * @return index of the first seat reserved (starting from 0), or NO_SEATS_FOUND
+   */
+  public int claimContinuousSeats(int numSeats, String name) {
+    return claimContinuousSeats(numSeats, name, StandardPlacement.FIRST_FIT);
+  }
+
+  /**
+   * Finds the block of adjacent free seats the placement strategy picks and reserves it for a
+   * party atomically, retrying on the new occupancy if another caller takes any of its seats.
+   * @param numSeats number of adjacent seats required
+   * @param name name of the party
+   * @param strategy where in the row the party should sit
+   * @return index of the first seat reserved (starting from 0), or NO_SEATS_FOUND
+   */
+  public int claimContinuousSeats(int numSeats, String name, PlacementStrategy strategy) {
+    if (numSeats < MINIMUM_ROW || numSeats > numOfSeatInARow) {
+      return NO_SEATS_FOUND;
+    }
+    while (true) {
+      int firstSeat = findBlock(numSeats, strategy);
+      if (firstSeat == NO_SEATS_FOUND) {
+        return NO_SEATS_FOUND;
+      }
+      if (claimBlock(firstSeat, numSeats)) {
+        assignSeats(firstSeat, numSeats, name, -numSeats);
+        return firstSeat;
+      }
+    }
+  }
+
+  /**
+   * Reserves a block of adjacent seats for a party in one step.
+   * @param firstSeat index of the first seat in the block, starting from 0
+   * @param numSeats number of seats in the block
+   * @param name name of the party
+   * @throws IllegalArgumentException if the block is outside the row or any of its seats is taken
+   */
+  public void reserveSeats(int firstSeat, int numSeats, String name) throws IllegalArgumentException {
+    checkBlock(firstSeat, numSeats);
+    if (!claimBlock(firstSeat, numSeats)) {
+      throw new IllegalArgumentException("Seats are already reserved.");
+    }
+    assignSeats(firstSeat, numSeats, name, -numSeats);
+  }
+
+  /**
+   * Hands a block of seats that was claimed without a party, for example a seat hold, to a party.
+   * @param firstSeat index of the first seat in the block, starting from 0
+   * @param numSeats number of seats in the block
+   * @param name name of the party
+   * @throws IllegalArgumentException if the block is outside the row
+   */
+  void assignParty(int firstSeat, int numSeats, String name) throws IllegalArgumentException {
+    checkBlock(firstSeat, numSeats);
+    assignSeats(firstSeat, numSeats, name, 0);
+  }
+
+  /**
+   * Releases a block of adjacent seats in one step.
+   * @param firstSeat index of the first seat in the block, starting from 0
+   * @param numSeats number of seats in the block
+   * @throws IllegalArgumentException if the block is outside the row
+   */
+  public void releaseSeats(int firstSeat, int numSeats) throws IllegalArgumentException {
+    checkBlock(firstSeat, numSeats);
+    for (int i = firstSeat; i < firstSeat + numSeats; i++) {
+      setParty(i, PartyRegistry.NO_PARTY, null);
+    }
+    int firstWord = firstSeat >>> WORD_SHIFT;
+    int lastWord = (firstSeat + numSeats - 1) >>> WORD_SHIFT;
+    boolean wide = startWideChange(firstWord, lastWord);
+    int freed = 0;
+    for (int word = firstWord; word <= lastWord; word++) {
+      freed += clearBits(word, blockMask(word, firstSeat, numSeats));
+    }
+    finishWideChange(wide);
+    occupancy.countRelease();
+    occupancyChanged(freed);
+  }
+
+  /**
+   * Reserves a single seat of this row for a party, replacing any party that held it.
+   * @param index index of the seat, starting from 0
+   * @param name name of the party, or null to release the seat
+   */
+  void reserveSeat(int index, String name) {
+    if (name == null) {
+      releaseSeats(index, MINIMUM_ROW);
+      return;
+    }
+    setParty(index, parties.register(name), name);
+    int word = occupancyWord + (index >>> WORD_SHIFT);
+    long bit = 1L << index;
+    long current;
+    do {
+      current = occupancy.getWord(word);
+    } while (!occupancy.compareAndSetWord(word, current, current | bit));
+    occupancyChanged((current & bit) == 0 ? -1 : 0);
+  }
+
+  /**
+   * Getter for the name of the party holding a seat
+   * @param index index of the seat, starting from 0
+   * @return name of the party, or null if the seat is free
+   */
+  String getReservedFor(int index) {
+    int[] ids = partyIds;
+    return isSeatReserved(index) && ids != null ? parties.getName(ids[index]) : null;
+  }
+
+  /**
+   * Getter for the ID of the party holding a seat
+   * @param index index of the seat, starting from 0
+   * @return ID in the theater's PartyRegistry, PartyRegistry.NO_PARTY if no party holds the seat
+   */
+  int getPartyId(int index) {
+    int[] ids = partyIds;
+    return ids == null ? PartyRegistry.NO_PARTY : ids[index];
+  }
+
+  /**
+   * Checks whether every seat of a block is still reserved for the given party.
+   * @param firstSeat index of the first seat, starting from 0
+   * @param numSeats number of seats in the block
+   * @param name name of the party
+   * @return true if all seats of the block are reserved and belong to the party, otherwise false
+   * @throws IllegalArgumentException if the block is outside the row
+   */
+  boolean isReservedFor(int firstSeat, int numSeats, String name) throws IllegalArgumentException {
+    checkBlock(firstSeat, numSeats);
+    int partyId = parties.findId(name);
+    for (int i = firstSeat; i < firstSeat + numSeats; i++) {
+      if (!isSeatReserved(i) || getPartyId(i) != partyId) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * helper function to check that a block of seats lies inside the row.
+   * @throws IllegalArgumentException if the block is outside the row
+   */
+  private void checkBlock(int firstSeat, int numSeats) throws IllegalArgumentException {
+    if (firstSeat < 0 || numSeats < MINIMUM_ROW || firstSeat + numSeats > numOfSeatInARow) {
+      throw new IllegalArgumentException("Seats are outside of the row.");
+    }
+  }
+
+  /**
+   * Sets the bits of a block of seats word by word, from the lowest word up. If one of the seats
+   * turns out to be taken, the words already set are cleared again, so the block is either claimed
+   * completely or not at all.
+   * @return true if the block was claimed, false if any of its seats was taken
+   */
+  private boolean claimBlock(int firstSeat, int numSeats) {
+    int firstWord = firstSeat >>> WORD_SHIFT;
+    int lastWord = (firstSeat + numSeats - 1) >>> WORD_SHIFT;
+    boolean wide = startWideChange(firstWord, lastWord);
+    for (int word = firstWord; word <= lastWord; word++) {
+      if (!setFreeBits(word, blockMask(word, firstSeat, numSeats))) {
+        for (int claimed = firstWord; claimed < word; claimed++) {
+          clearBits(claimed, blockMask(claimed, firstSeat, numSeats));
+        }
+        finishWideChange(wide);
+        if (word > firstWord) {
+          occupancy.countRelease();
+        }
+        if (wide) {
+          occupancyChanged(0);  // publishes what others skipped while the block was half set
+        }
+        return false;
+      }
+    }
+    finishWideChange(wide);
+    return true;
+  }
+
+  /**
+   * Marks the start of a change to several words, which must not be published half done.
+   * @return true if the change spans several words and was marked
+   */
+  private boolean startWideChange(int firstWord, int lastWord) {
+    if (firstWord == lastWord) {
+      return false;
+    }
+    Theater owner = theater;
+    if (owner != null) {
+      owner.commitStarted();
+    }
+    WIDE_CHANGES_STARTED.getAndAdd(this, 1);
+    return true;
+  }
+
+  /**
+   * Marks the end of a change started with startWideChange. Changes made while it was half done
+   * were not published, so it publishes them before it tells the theater the commit finished; until
+   * then the theater's snapshots see a commit in progress and do not take a copy that misses them.
+   */
+  private void finishWideChange(boolean wide) {
+    if (wide) {
+      WIDE_CHANGES_FINISHED.getAndAdd(this, 1);
+      publishOccupancy();
+      Theater owner = theater;
+      if (owner != null) {
+        owner.commitFinished();
+      }
+    }
+  }
+
+  /**
+   * Sets the given bits of one of this row's words atomically, as long as none of them is set.
+   * @return true if the bits were set, false if any of them was set already
+   */
+  private boolean setFreeBits(int word, long bits) {
+    long current;
+    do {
+      current = occupancy.getWord(occupancyWord + word);
+      if ((current & bits) != 0) {
+        return false;
+      }
+    } while (!occupancy.compareAndSetWord(occupancyWord + word, current, current | bits));
+    return true;
+  }
+
+  /**
+   * Clears the given bits of one of this row's words atomically.
+   * @return number of bits that were set before
+   */
+  private int clearBits(int word, long bits) {
+    long current;
+    do {
+      current = occupancy.getWord(occupancyWord + word);
+    } while (!occupancy.compareAndSetWord(occupancyWord + word, current, current & ~bits));
+    return Long.bitCount(current & bits);
+  }
+
+  /**
+   * Records the party holding a block of seats that was just claimed in the bitmap. The party is
+   * only registered now, so a claim that fails leaves nothing behind in the registry.
+   * @param freeSeatsDelta change in the number of free seats, -numSeats if the block was just claimed
+   */
+  private void assignSeats(int firstSeat, int numSeats, String name, int freeSeatsDelta) {
+    int partyId = parties.register(name);
+    for (int i = firstSeat; i < firstSeat + numSeats; i++) {
+      partyId = setParty(i, partyId, name);
+    }
+    occupancyChanged(freeSeatsDelta);
+  }
+
+  /**
+   * Changes the party holding a seat, keeping the registry's reverse index in sync. If the party
+   * was forgotten after releasing its last seat since its ID was looked up, the name is
+   * registered again.
+   * @param index index of the seat, starting from 0
+   * @param partyId ID of the party, PartyRegistry.NO_PARTY to free the seat
+   * @param name name of the party, null to free the seat
+   * @return ID the seat was given
+   */
+  private int setParty(int index, int partyId, String name) {
+    int[] ids = partyIds;
+    if (ids == null) {
+      if (partyId == PartyRegistry.NO_PARTY) {
+        return partyId;
+      }
+      ids = allocatePartyIds();
+    }
+    int previous = ids[index];
+    if (previous != partyId) {
+      int seatKey = PartyRegistry.seatKey(rowNumber, index);
+      parties.removeSeat(previous, seatKey);
+      while (!parties.addSeat(partyId, seatKey)) {
+        partyId = parties.register(name);
+      }
+      ids[index] = partyId;
+    }
+    return partyId;
+  }
+
+  /**
+   * Allocates the party IDs of this row the first time one of its seats is reserved.
+   */
+  private synchronized int[] allocatePartyIds() {
+    if (partyIds == null) {
+      partyIds = new int[numOfSeatInARow];
+    }
+    return partyIds;
+  }
+
+  /**
+   * Publishes the new occupancy and tells the theater holding this row that its free seats
+   * changed. The theater counts publications in progress, so its snapshots can tell whether a row
+   * was published while they were being taken.
+   * @param freeSeatsDelta how many seats this change freed, negative if it took seats
+   */
+  private void occupancyChanged(int freeSeatsDelta) {
+    Theater owner = theater;
+    if (owner != null) {
+      owner.commitStarted();
+    }
+    publishOccupancy();
+    MODIFICATION_STAMP.getAndAdd(this, 1L);
+    if (owner != null) {
+      owner.commitFinished();
+      owner.rowChanged(this, freeSeatsDelta);
+    }
+  }
+
+  /**
+   * Publishes a copy of the current words as the committed occupancy. A writer that read its copy
+   * before another writer published loses the compare-and-set and reads again, so the last
+   * published copy always holds every change made before it. While a change spanning several
+   * words is half done nothing is published; whoever finishes that change publishes afterwards.
+   * A published copy that already matches the words is kept, so only a real change allocates.
+   */
+  private void publishOccupancy() {
+    while (true) {
+      long[] published = committedOccupancy;
+      int finished = wideChangesFinished;
+      if (matchesOccupancy(published)) {
+        return;
+      }
+      long[] current = occupancyBits();
+      if (wideChangesStarted != finished) {
+        return;
+      }
+      if (COMMITTED_OCCUPANCY.compareAndSet(this, published, current)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns a stamp that grows with every change to the seats of this row, whether a seat was
+   * reserved, released or handed to another party. Comparing two stamps tells in constant time
+   * whether the row changed in between. Changes made by other processes sharing the occupancy do
+   * not move the stamp.
+   * @return the modification stamp as long
+   */
+  public long getModificationStamp() {
+    return modificationStamp;
+  }
+
+  /**
+   * Returns this row's occupancy as of its last committed change. Rows sharing their storage with
+   * other processes never hear of changes made elsewhere, so they read the words instead.
+   * @return the bitmap, one word per 64 seats, which must not be changed
+   */
+  long[] committedOccupancy() {
+    return occupancy.isShared() ? occupancyBits() : committedOccupancy;
+  }
+
+  /**
+   * Checks if the seat at the given index is reserved.
+   * @param index index of the seat, starting from 0
+   * @return true if the seat is reserved, otherwise false
+   */
+  boolean isSeatReserved(int index) {
+    return (occupancy.getWord(occupancyWord + (index >>> WORD_SHIFT)) & (1L << index)) != 0;
+  }
+
+  /**
+   * Returns this row's line of the seat map for the given occupancy, for example
+   * " 7 _ _ X X _ \n". The line is only rendered again when the bitmap differs from the one the
+   * last line was rendered from.
+   * @param reserved occupancy bitmap of this row, one word per 64 seats
+   * @return the rendered line
+   */
+  RenderedLine renderLine(long[] reserved) {
+    RenderedLine line = renderedLine;
+    if (line == null || (line.occupancy != reserved && !Arrays.equals(line.occupancy, reserved))) {
+      StringBuilder lineString = new StringBuilder();
+      if (rowNumber < SINGLE_DIGIT_LIMIT) {
+        lineString.append(" ");  // Pad single digit row numbers with space
+      }
+      lineString.append(rowNumber).append(" ").append(renderSeats(reserved)).append("\n");
+      line = new RenderedLine(reserved, lineString.toString().getBytes(StandardCharsets.US_ASCII));
+      renderedLine = line;
+    }
+    return line;
+  }
+
+  /**
+   * Checks whether a copy of the occupancy bitmap still matches the current words of this row.
+   */
+  private boolean matchesOccupancy(long[] copy) {
+    for (int word = 0; word < numWords; word++) {
+      if (copy[word] != occupancy.getWord(occupancyWord + word)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the current occupancy bitmap of this row, one word per 64 seats.
+   */
+  private long[] occupancyBits() {
+    long[] reserved = new long[numWords];
+    for (int word = 0; word < numWords; word++) {
+      reserved[word] = occupancy.getWord(occupancyWord + word);
+    }
+    return reserved;
+  }
+
+  /**
+   * Reads the free seats of the row that lie in the given word straight from the occupancy, so
+   * the searches walk the row without copying it.
+   */
+  private long freeWord(int word) {
+    return ~occupancy.getWord(occupancyWord + word) & wordMask(word);
+  }
+
+  /**
+   * Bitmap with one bit set for every seat of the row that lies in the given word.
+   */
+  private long wordMask(int word) {
+    int seatsInWord = Math.min(numOfSeatInARow - (word << WORD_SHIFT), Long.SIZE);
+    return seatsInWord == Long.SIZE ? -1L : (1L << seatsInWord) - 1;
+  }
+
+  /**
+   * Bitmap with the bits set for the part of a block of seats that lies in the given word.
+   */
+  private static long blockMask(int word, int firstSeat, int numSeats) {
+    int wordStart = word << WORD_SHIFT;
+    int from = Math.max(firstSeat - wordStart, 0);
+    int to = Math.min(firstSeat + numSeats - wordStart, Long.SIZE);
+    long width = to - from == Long.SIZE ? -1L : (1L << (to - from)) - 1;
+    return width << from;
+  }
+
+  /**
+   * Finds the block of numSeats free seats a placement strategy picks. First fit takes the
+   * shift-and search of findFreeBlock; other strategies walk the free runs of the bitmap a word
+   * at a time, jumping from run edge to run edge with numberOfTrailingZeros, so they visit each
+   * word once plus once per run instead of once per seat.
+   * @param numSeats number of adjacent free seats required
+   * @param strategy where in the row the party should sit
+   * @return index of the first seat in the block, or NO_SEATS_FOUND
+   */
+  private int findBlock(int numSeats, PlacementStrategy strategy) {
+    if (strategy == StandardPlacement.FIRST_FIT) {
+      return findFreeBlock(numSeats);
+    }
+    int bestSeat = NO_SEATS_FOUND;
+    int bestCost = Integer.MAX_VALUE;
+    int runStart = NO_SEATS_FOUND;
+    for (int word = 0; word < numWords; word++) {
+      long free = freeWord(word);
+      int wordStart = word << WORD_SHIFT;
+      int position = 0;
+      while (position < Long.SIZE) {
+        if (runStart == NO_SEATS_FOUND) {
+          long ahead = free >>> position;
+          if (ahead == 0) {
+            break;
+          }
+          position += Long.numberOfTrailingZeros(ahead);
+          runStart = wordStart + position;
+        }
+        long taken = ~free >>> position;
+        if (taken == 0) {
+          break;  // the run carries on into the next word
+        }
+        position += Long.numberOfTrailingZeros(taken);
+        int runLength = wordStart + position - runStart;
+        if (runLength >= numSeats) {
+          int firstSeat = strategy.firstSeat(runStart, runLength, numSeats, numOfSeatInARow);
+          int cost = strategy.cost(firstSeat, runLength, numSeats, numOfSeatInARow);
+          if (cost < bestCost) {
+            bestSeat = firstSeat;
+            bestCost = cost;
+            if (cost == 0) {
+              return bestSeat;
+            }
+          }
+        }
+        runStart = NO_SEATS_FOUND;
+      }
+    }
+    if (runStart != NO_SEATS_FOUND && numOfSeatInARow - runStart >= numSeats) {
+      int runLength = numOfSeatInARow - runStart;
+      int firstSeat = strategy.firstSeat(runStart, runLength, numSeats, numOfSeatInARow);
+      if (strategy.cost(firstSeat, runLength, numSeats, numOfSeatInARow) < bestCost) {
+        bestSeat = firstSeat;
+      }
+    }
+    return bestSeat;
+  }
+
+  /**
+   * Finds the leftmost block of numSeats free seats across the words of the bitmap. A block that
+   * fits inside one word is found with findFreeBlock(long, int); the free run at the top of each
+   * word is carried into the next one, which finds blocks crossing a word boundary and blocks
+   * wider than a word.
+   * @param numSeats number of adjacent free seats required
+   * @return index of the first seat in the block, or NO_SEATS_FOUND
+   */
+  private int findFreeBlock(int numSeats) {
+    int carried = 0;
+    for (int word = 0; word < numWords; word++) {
+      long free = freeWord(word);
+      if (carried > 0) {
+        int lowRun = Long.numberOfTrailingZeros(~free);
+        if (carried + lowRun >= numSeats) {
+          return (word << WORD_SHIFT) - carried;
+        }
+        if (lowRun == Long.SIZE) {
+          carried += Long.SIZE;
+          continue;
+        }
+      }
+      if (numSeats <= Long.SIZE) {
+        int firstSeat = findFreeBlock(free, numSeats);
+        if (firstSeat != NO_SEATS_FOUND) {
+          return (word << WORD_SHIFT) + firstSeat;
+        }
+      }
+      carried = Long.numberOfLeadingZeros(~free);
+    }
+    return NO_SEATS_FOUND;
+  }
+
+  /**
+   * Finds the lowest index where numSeats free bits start. After each step bit i stays set only
+   * if the bits i .. i + covered - 1 are all free, and covered at least doubles per step.
+   * @param free bitmap of free seats
+   * @param numSeats number of adjacent free seats required
+   * @return index of the first seat in the block, or NO_SEATS_FOUND
+   */
+  private static int findFreeBlock(long free, int numSeats) {
+    long candidates = free;
+    int covered = MINIMUM_ROW;
+    while (covered < numSeats && candidates != 0) {
+      int shift = Math.min(covered, numSeats - covered);
+      candidates &= candidates >>> shift;
+      covered += shift;
+    }
+    return candidates == 0 ? NO_SEATS_FOUND : Long.numberOfTrailingZeros(candidates);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -78,17 +898,32 @@ public class Row extends ArrayList<Seat> {
     if (o == null || getClass() != o.getClass()) {
       return false;
     }
+    Row seats = (Row) o;
+    if (hashCode() != seats.hashCode()) {
+      return false;  // cached hashes tell most different rows apart without comparing every seat
+    }
     if (!super.equals(o)) {
       return false;
     }
-    Row seats = (Row) o;
     return rowNumber == seats.rowNumber && wheelchairAccessible == seats.wheelchairAccessible
         && numOfSeatInARow == seats.numOfSeatInARow;
   }
 
+  /**
+   * Hashes the seats of this row. The hash is cached against the modification stamp, so hashing an
+   * unchanged row again takes constant time; rows sharing their occupancy with other processes
+   * are hashed afresh every time.
+   */
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), rowNumber, wheelchairAccessible, numOfSeatInARow);
+    long stamp = modificationStamp;
+    StampedHash cached = stampedHash;
+    if (cached != null && cached.isValidAt(stamp) && !occupancy.isShared()) {
+      return cached.getHash();
+    }
+    int hash = Objects.hash(super.hashCode(), rowNumber, wheelchairAccessible, numOfSeatInARow);
+    stampedHash = new StampedHash(stamp, hash);
+    return hash;
   }
 
   /**
@@ -98,10 +933,17 @@ public class Row extends ArrayList<Seat> {
    */
   @Override
   public String toString() {
+    return renderSeats(occupancyBits());
+  }
+
+  /**
+   * Renders the seats of this row for the given occupancy bitmap.
+   */
+  private String renderSeats(long[] reserved) {
     StringBuilder rowString = new StringBuilder();
 
-    for (Seat seat : this) {
-      if (seat.getReservedFor() != null) {
+    for (int i = 0; i < size(); i++) {
+      if ((reserved[i >>> WORD_SHIFT] & (1L << i)) != 0) {
         rowString.append("X");
       } else if (wheelchairAccessible) {
         rowString.append("=");
@@ -112,5 +954,25 @@ public class Row extends ArrayList<Seat> {
     }
     return rowString.toString();
   }
-}
 
+  /**
+   * One rendered line of the seat map, together with the occupancy it was rendered from.
+   */
+  static final class RenderedLine {
+    private final long[] occupancy;
+    private final byte[] bytes;
+
+    private RenderedLine(long[] occupancy, byte[] bytes) {
+      this.occupancy = occupancy;
+      this.bytes = bytes;
+    }
+
+    /**
+     * Getter for the rendered bytes, which must not be changed
+     * @return the line as ASCII bytes
+     */
+    byte[] getBytes() {
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package TheaterReservationSystem;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * RowIndex keeps the rows of one accessibility class in the order they should be offered to a
+ * party (closest to the center row first), together with a max-tree over each row's largest
+ * block of free seats. The tree is updated whenever a row changes, so finding the best row that
+ * can hold a party takes O(log R) instead of sorting and scanning all rows.
+ *
+ * <p>The tree can be updated by several threads at once without a lock. Every node holds its
+ * value together with a version number, and a node is recomputed from its children and written
+ * with compare-and-set until no other writer got in between. The last writer therefore always
+ * leaves a value computed from the latest children. Readers may briefly see an old value, so the
+ * index is only a hint and callers claim seats on the row itself.
+ *
+ * <p>The index also counts the free seats of its rows. Every change adds the number of seats it
+ * freed or took, known from the bits it flipped, so the total stays exact however many threads
+ * book at once. Seats changed by other processes sharing the occupancy are only counted again by
+ * recountFreeSeats.
+ */
+class RowIndex {
+
+  /**
+   * the root of the tree, holding the largest free block of all rows
+   */
+  private static final int ROOT = 1;
+  private static final int CHILDREN = 2;
+  private static final long VALUE_MASK = 0xFFFFFFFFL;
+  private static final int VERSION_SHIFT = 32;
+
+  private final Row[] rowsByRank;
+  /**
+   * max-tree stored as an array, the leaf of the row with rank r is at leafBase + r. Each entry
+   * packs a version in the high 32 bits and the largest free block in the low 32 bits.
+   */
+  private final AtomicLongArray largestFreeRun;
+  private final int leafBase;
+  private final AtomicInteger freeSeats = new AtomicInteger();
+
+  /**
+   * Constructs a new RowIndex over the given rows.
+   * @param rows rows of one accessibility class
+   * @param centerRow row number of the center row
+   */
+  RowIndex(List<Row> rows, int centerRow) {
+    this.rowsByRank = rows.stream()
+        .sorted(Comparator.comparingInt((Row row) -> Math.abs(row.getRowNumber() - centerRow))
+            .thenComparingInt(Row::getRowNumber))
+        .toArray(Row[]::new);
+
+    int base = ROOT;
+    while (base < rowsByRank.length) {
+      base *= CHILDREN;
+    }
+    this.leafBase = base;
+    this.largestFreeRun = new AtomicLongArray(base * CHILDREN);
+
+    for (int rank = 0; rank < rowsByRank.length; rank++) {
+      rowsByRank[rank].setIndexRank(rank);
+      largestFreeRun.set(leafBase + rank, rowsByRank[rank].getLargestFreeRun());
+      freeSeats.addAndGet(rowsByRank[rank].getFreeSeats());
+    }
+    for (int node = leafBase - 1; node >= ROOT; node--) {
+      largestFreeRun.set(node, Math.max(valueAt(CHILDREN * node), valueAt(CHILDREN * node + 1)));
+    }
+  }
+
+  /**
+   * Refreshes the entry of a row after its seats changed.
+   * @param row the row that changed, must belong to this index
+   */
+  void update(Row row) {
+    int node = leafBase + row.getIndexRank();
+    long current;
+    do {
+      current = largestFreeRun.get(node);
+    } while (!largestFreeRun.compareAndSet(node, current, nextVersion(current, row.getLargestFreeRun())));
+
+    for (node /= CHILDREN; node >= ROOT; node /= CHILDREN) {
+      do {
+        current = largestFreeRun.get(node);
+      } while (!largestFreeRun.compareAndSet(node, current, nextVersion(current,
+          Math.max(valueAt(CHILDREN * node), valueAt(CHILDREN * node + 1)))));
+    }
+  }
+
+  /**
+   * Adds the seats a change freed to the free seat count.
+   * @param delta seats freed, negative if seats were taken
+   */
+  void addFreeSeats(int delta) {
+    if (delta != 0) {
+      freeSeats.addAndGet(delta);
+    }
+  }
+
+  /**
+   * Counts the free seats of every row again, for an occupancy other processes change too.
+   */
+  void recountFreeSeats() {
+    int total = 0;
+    for (Row row : rowsByRank) {
+      total += row.getFreeSeats();
+    }
+    freeSeats.set(total);
+  }
+
+  /**
+   * Finds the row closest to the center that has enough adjacent free seats.
+   * @param numSeats number of adjacent seats required
+   * @return the best row, or null if no row can hold the party
+   */
+  Row findBestRow(int numSeats) {
+    if (valueAt(ROOT) < numSeats) {
+      return null;
+    }
+    int node = ROOT;
+    while (node < leafBase) {
+      node = valueAt(CHILDREN * node) >= numSeats ? CHILDREN * node : CHILDREN * node + 1;
+    }
+    int rank = node - leafBase;
+    return rank < rowsByRank.length ? rowsByRank[rank] : null;
+  }
+
+  /**
+   * Getter for the largest block of adjacent free seats in any row of this index
+   * @return largest free block as int
+   */
+  int getLargestFreeRun() {
+    return valueAt(ROOT);
+  }
+
+  /**
+   * Getter for the number of free seats in all rows of this index
+   * @return free seats as int
+   */
+  int getFreeSeats() {
+    return freeSeats.get();
+  }
+
+  private int valueAt(int node) {
+    return (int) (largestFreeRun.get(node) & VALUE_MASK);
+  }
+
+  private static long nextVersion(long current, int value) {
+    long version = (current >>> VERSION_SHIFT) + 1;
+    return (version << VERSION_SHIFT) | (value & VALUE_MASK);
+  }
+}
@@ -7,27 +7,53 @@ import java.util.regex.Pattern;
  * Seat is a class that contains information of Theater's seats.
  */
 public class Seat {
-  private String seatName;
-  private String reservedFor;
+  private final String seatName;
   /**
-   * the seat name length would be 1 since it is capital letter from A-Z.
+   * reserved-for value of a seat created on its own, seats in a row keep it in the row instead
    */
-  private static final int SEAT_NAME_LENGTH = 1;
+  private volatile String reservedFor;
+  /**
+   * the row this seat belongs to, or null if the seat was created on its own.
+   */
+  private final Row row;
+  /**
+   * position of this seat inside its row, starting from 0.
+   */
+  private final int index;
+  /**
+   * seat names are one or two capital letters (A-Z, AA-ZZ) or a seat number starting from 1.
+   */
+  private static final Pattern SEAT_NAME = Pattern.compile("^([A-Z]{1,2}|[1-9][0-9]*)$");
 
   /**
    * Constructs a new Seat object by given seat name and a reserved-for value
-   * @param seatName seat name, a string value representing a capital letter from A to Z.
+   * @param seatName seat name, one or two capital letters (A to Z, then AA to ZZ for wide rows) or a
+   *     seat number starting from 1.
    * @param reservedFor value representing the name of the person for whom it has been reserved, or null if the seat has not been reserved.
-   * @throws IllegalArgumentException if seat name's length is not 1 or is not capital letter from A-Z
+   * @throws IllegalArgumentException if seat name is neither one or two capital letters nor a seat number
    */
   public Seat(String seatName, String reservedFor) throws IllegalArgumentException{
-    String regex = "^[A-Z]$";
-    boolean isNameCapital = Pattern.matches(regex, seatName);
-    if (!isNameCapital || seatName.length() != SEAT_NAME_LENGTH ) {
-      throw new IllegalArgumentException("Name should be a capital letter from A-Z");
+    if (!SEAT_NAME.matcher(seatName).matches()) {
+      throw new IllegalArgumentException("Name should be one or two capital letters or a seat number");
     }
     this.seatName = seatName;
     this.reservedFor = reservedFor;
+    this.row = null;
+    this.index = 0;
+  }
+
+  /**
+   * Constructs a view of a seat held by a row. The row keeps the seat's occupancy and party, so
+   * reserving or releasing the seat through the view updates the row. The name comes from the
+   * row's shared labels and is not validated again.
+   * @param seatName seat name
+   * @param row the row holding this seat
+   * @param index position of this seat inside the row, starting from 0
+   */
+  Seat(String seatName, Row row, int index) {
+    this.seatName = seatName;
+    this.row = row;
+    this.index = index;
   }
 
   /**
@@ -40,25 +66,49 @@ public class Seat {
 
   /**
    * Getter for reserved for value
-   * @return reserved for as String
+   * @return reserved for as String, or null if the seat is not reserved (or was reserved by
+   *     another process sharing the theater's occupancy)
    */
   public String getReservedFor() {
+    if (row != null) {
+      return row.getReservedFor(index);
+    }
     return reservedFor;
   }
 
+  /**
+   * Checks if the seat is reserved, read from the row's occupancy bitmap when the seat belongs
+   * to a row.
+   * @return true if the seat is reserved, otherwise false
+   */
+  public boolean isReserved() {
+    if (row != null) {
+      return row.isSeatReserved(index);
+    }
+    return reservedFor != null;
+  }
+
   /**
    * method to reserve a seat
    * @param name name as String
    */
   public void reserve(String name) {
-    reservedFor = name;
+    if (row != null) {
+      row.reserveSeat(index, name);
+    } else {
+      reservedFor = name;
+    }
   }
 
   /**
    * status that when a seat is not reserved, set it to null.
    */
   public void notReserved() {
-    reservedFor = null;
+    if (row != null) {
+      row.reserveSeat(index, null);
+    } else {
+      reservedFor = null;
+    }
   }
 
   @Override
@@ -66,19 +116,19 @@ public class Seat {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     Seat seat = (Seat) o;
-    return Objects.equals(seatName, seat.seatName) && Objects.equals(reservedFor, seat.reservedFor);
+    return Objects.equals(seatName, seat.seatName) && Objects.equals(getReservedFor(), seat.getReservedFor());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(seatName, reservedFor);
+    return Objects.hash(seatName, getReservedFor());
   }
 
   @Override
   public String toString() {
     return "Seat{" +
         "name='" + seatName + '\'' +
-        ", reservedFor='" + reservedFor + '\'' +
+        ", reservedFor='" + getReservedFor() + '\'' +
         '}';
   }
 }
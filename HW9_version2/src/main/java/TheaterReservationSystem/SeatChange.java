@@ -0,0 +1,128 @@
+package TheaterReservationSystem;
+
+/**
+ * SeatChange describes one change to the seats of a theater, as published on a SeatChangeBus.
+ * Instances are pre-allocated and filled in again for every change, so a handler must copy what it
+ * wants to keep before it returns.
+ */
+public final class SeatChange {
+
+    /**
+     * What happened to the seats.
+     */
+    public enum Type {
+        /**
+         * the seats were reserved for a party, possibly after being held
+         */
+        RESERVE,
+        /**
+         * the seats were set aside for a party still in the booking dialog
+         */
+        HOLD,
+        /**
+         * the seats were freed by a cancellation or an expired or given-up hold
+         */
+        RELEASE,
+        /**
+         * seats just claimed were given back because the reservation could not be recorded in the
+         * journal; no RESERVE was published for them
+         */
+        ROLLBACK
+    }
+
+    private Type type;
+    private Theater theater;
+    private int rowNumber;
+    private int firstSeat;
+    private int numSeats;
+    private String name;
+    private long timeNanos;
+
+    /**
+     * Fills in this change.
+     */
+    void set(Type type, Theater theater, int rowNumber, int firstSeat, int numSeats, String name, long timeNanos) {
+        this.type = type;
+        this.theater = theater;
+        this.rowNumber = rowNumber;
+        this.firstSeat = firstSeat;
+        this.numSeats = numSeats;
+        this.name = name;
+        this.timeNanos = timeNanos;
+    }
+
+    /**
+     * Copies another change into this one.
+     */
+    void copyFrom(SeatChange other) {
+        set(other.type, other.theater, other.rowNumber, other.firstSeat, other.numSeats, other.name,
+                other.timeNanos);
+    }
+
+    /**
+     * Getter for the type of change
+     * @return what happened to the seats
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Getter for the theater
+     * @return the theater whose seats changed
+     */
+    public Theater getTheater() {
+        return theater;
+    }
+
+    /**
+     * Getter for the row number
+     * @return number of the row, starting from 1
+     */
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Getter for the first seat
+     * @return index of the first seat that changed, starting from 0
+     */
+    public int getFirstSeat() {
+        return firstSeat;
+    }
+
+    /**
+     * Getter for the number of seats
+     * @return number of adjacent seats that changed
+     */
+    public int getNumSeats() {
+        return numSeats;
+    }
+
+    /**
+     * Getter for the name of the party
+     * @return name of the party, or null for held seats
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the time of the change
+     * @return System.nanoTime() when the change was published
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatChange{" +
+                "type=" + type +
+                ", row=" + rowNumber +
+                ", firstSeat=" + firstSeat +
+                ", numSeats=" + numSeats +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,246 @@
+package TheaterReservationSystem;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SeatChangeBus hands every seat change to any number of subscribers, such as ticket printing,
+ * analytics or notifications, through a ring of pre-allocated slots in the style of the LMAX
+ * Disruptor. Publishing claims the next position with one atomic increment, fills in the slot at
+ * that position and stamps it with the position; nothing is allocated and nothing waits for the
+ * subscribers. Each subscription reads the slots behind the last position it handled, on its own
+ * thread, in batches of whatever has been published since it last looked.
+ *
+ * <p>Since publishers never wait, a subscriber that falls a whole ring behind finds its next slot
+ * overwritten. It then skips to the oldest change still in the ring and is told how many it
+ * missed, instead of slowing down bookings or buffering without bound.
+ *
+ * <p>Bookings are made from many threads, so unlike the single-producer Disruptor the position is
+ * claimed atomically. When no one subscribes, publishing returns right away.
+ */
+public class SeatChangeBus {
+
+    /**
+     * sequence of a slot that a publisher is filling in
+     */
+    private static final long WRITING = Long.MIN_VALUE;
+    /**
+     * sequence of a slot that was never published
+     */
+    private static final long EMPTY = -1;
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long IDLE_PARK_NANOS = 100_000;
+    private static final VarHandle SLOT_SEQUENCE;
+
+    static {
+        try {
+            SLOT_SEQUENCE = MethodHandles.lookup().findVarHandle(Slot.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    /**
+     * the next position to claim, also the number of changes published so far
+     */
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile int subscriptions;
+
+    /**
+     * Constructs a new SeatChangeBus.
+     *
+     * @param capacity Number of slots, rounded up to a power of two; a subscriber can fall this
+     *                 many changes behind before it misses any.
+     */
+    public SeatChangeBus(int capacity) {
+        int slotCount = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1);
+        this.slots = new Slot[slotCount];
+        this.mask = slotCount - 1;
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Publishes a seat change to every subscription. Never blocks on subscribers and never allocates.
+     *
+     * @param type      What happened to the seats.
+     * @param theater   The theater whose seats changed.
+     * @param rowNumber Number of the row, starting from 1.
+     * @param firstSeat Index of the first seat, starting from 0.
+     * @param numSeats  Number of adjacent seats.
+     * @param name      Name of the party, or null for held seats.
+     */
+    public void publish(SeatChange.Type type, Theater theater, int rowNumber, int firstSeat, int numSeats,
+                        String name) {
+        if (subscriptions == 0) {
+            return;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        Slot slot = slots[(int) (sequence & mask)];
+        while (true) {
+            long current = slot.sequence;
+            if (current == WRITING) {
+                Thread.onSpinWait();  // another publisher is filling in the slot
+            } else if (current > sequence) {
+                return;  // overwritten by a publisher a whole ring ahead, subscribers count it as missed
+            } else if (SLOT_SEQUENCE.compareAndSet(slot, current, WRITING)) {
+                break;
+            }
+        }
+        slot.change.set(type, theater, rowNumber, firstSeat, numSeats, name, System.nanoTime());
+        slot.sequence = sequence;
+    }
+
+    /**
+     * Getter for the number of changes published
+     *
+     * @return number of changes as long
+     */
+    public long getPublished() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Subscribes a handler to the changes published from now on. The subscription does nothing until
+     * it is started on its own thread or polled.
+     *
+     * @param handler The handler to call for every change.
+     * @return The subscription, to start or poll and to close when done.
+     */
+    public synchronized Subscription subscribe(SeatChangeHandler handler) {
+        subscriptions++;
+        return new Subscription(handler, nextSequence.get());
+    }
+
+    private synchronized void unsubscribe() {
+        subscriptions--;
+    }
+
+    /**
+     * One slot of the ring. The sequence is the position of the change in the slot, WRITING while a
+     * publisher fills it in.
+     */
+    private static final class Slot {
+        private final SeatChange change = new SeatChange();
+        private volatile long sequence = EMPTY;
+    }
+
+    /**
+     * A subscriber's place on the bus. Its handler is called on one thread at a time, either the
+     * subscription's own thread after start, or whichever thread calls poll.
+     */
+    public final class Subscription implements Closeable, Runnable {
+        private final SeatChangeHandler handler;
+        /**
+         * this subscription's copy of the change being handled, so a publisher overwriting the slot
+         * cannot change it under the handler
+         */
+        private final SeatChange change = new SeatChange();
+        private long next;
+        private volatile boolean open = true;
+        private volatile Thread thread;
+
+        private Subscription(SeatChangeHandler handler, long next) {
+            this.handler = handler;
+            this.next = next;
+        }
+
+        /**
+         * Handles every change published since the last poll, as one batch.
+         *
+         * @return Number of changes handled.
+         */
+        public int poll() {
+            int handled = 0;
+            while (open) {
+                Slot slot = slots[(int) (next & mask)];
+                long sequence = slot.sequence;
+                if (sequence == next) {
+                    change.copyFrom(slot.change);
+                    VarHandle.loadLoadFence();
+                    if (slot.sequence == next) {
+                        long current = next++;
+                        handler.onSeatChange(change, current, !isPublished(next));
+                        handled++;
+                        continue;
+                    }
+                    sequence = slot.sequence;
+                }
+                if (sequence != WRITING && sequence > next) {
+                    skipOverwritten();
+                    continue;
+                }
+                break;
+            }
+            return handled;
+        }
+
+        /**
+         * Checks if the change at a position has been published.
+         */
+        private boolean isPublished(long sequence) {
+            return slots[(int) (sequence & mask)].sequence == sequence;
+        }
+
+        /**
+         * Skips to the oldest change that can still be in the ring after this subscription's next
+         * slot was overwritten.
+         */
+        private void skipOverwritten() {
+            long oldest = nextSequence.get() - slots.length;
+            long skipTo = Math.max(oldest, next + 1);
+            handler.onMissed(skipTo - next);
+            next = skipTo;
+        }
+
+        /**
+         * Starts handling changes on a daemon thread of its own, which spins briefly and then naps
+         * while no changes come in.
+         *
+         * @param name Name of the thread.
+         * @return The thread.
+         */
+        public Thread start(String name) {
+            Thread started = new Thread(this, name);
+            started.setDaemon(true);
+            thread = started;
+            started.start();
+            return started;
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (open) {
+                if (poll() > 0) {
+                    idle = 0;
+                } else if (++idle < SPINS_BEFORE_PARKING) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        /**
+         * Stops the subscription. Changes published afterwards are no longer handled.
+         */
+        @Override
+        public void close() {
+            if (open) {
+                open = false;
+                unsubscribe();
+                Thread running = thread;
+                if (running != null) {
+                    LockSupport.unpark(running);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package TheaterReservationSystem;
+
+/**
+ * SeatChangeHandler receives the seat changes published on a SeatChangeBus, in the order they were
+ * published, on the thread of its subscription.
+ */
+@FunctionalInterface
+public interface SeatChangeHandler {
+
+    /**
+     * Handles one seat change. The change is reused for the next one, so copy what you want to keep.
+     *
+     * @param change     The change.
+     * @param sequence   Position of the change on the bus, counting from 0.
+     * @param endOfBatch True if no further change is waiting, a good moment to flush batched work.
+     */
+    void onSeatChange(SeatChange change, long sequence, boolean endOfBatch);
+
+    /**
+     * Called when the handler fell so far behind that changes were overwritten before it read them.
+     *
+     * @param count Number of changes skipped.
+     */
+    default void onMissed(long count) {
+    }
+}
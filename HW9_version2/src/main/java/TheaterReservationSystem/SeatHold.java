@@ -0,0 +1,149 @@
+package TheaterReservationSystem;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SeatHold is a block of adjacent seats set aside for a party that is still in the booking
+ * dialog. The seats are claimed in the row as soon as the hold is made, so nobody else can take
+ * them, but they belong to no party until the hold is confirmed with a name. A hold that is
+ * neither confirmed nor released before its deadline expires and its seats are freed again.
+ *
+ * Create holds with ReservationService.hold and finish them with confirm or release.
+ */
+public final class SeatHold {
+
+    /** the seats are held */
+    static final int HELD = 0;
+    /** the hold became a reservation */
+    static final int CONFIRMED = 1;
+    /** the hold was given up */
+    static final int RELEASED = 2;
+    /** the hold ran out of time */
+    static final int EXPIRED = 3;
+
+    private final Theater theater;
+    private final Row row;
+    private final int firstSeat;
+    private final int numSeats;
+    private final boolean wheelchairAccessible;
+    private final long deadlineNanos;
+    /**
+     * HELD until exactly one of confirm, release or expiry moves it on
+     */
+    private final AtomicInteger state = new AtomicInteger(HELD);
+
+    /**
+     * the tick of the HoldWheel the hold expires at, and its neighbours in the wheel's bucket,
+     * all guarded by the wheel
+     */
+    long deadlineTick;
+    SeatHold previous;
+    SeatHold next;
+
+    /**
+     * Constructs a new SeatHold over seats that were just claimed.
+     * @param theater              the theater the seats are in
+     * @param row                  the row the seats are in
+     * @param firstSeat            index of the first held seat, starting from 0
+     * @param numSeats             number of held seats
+     * @param wheelchairAccessible whether the seats were held for a wheelchair user
+     * @param deadlineNanos        System.nanoTime() after which the hold expires
+     */
+    SeatHold(Theater theater, Row row, int firstSeat, int numSeats, boolean wheelchairAccessible,
+             long deadlineNanos) {
+        this.theater = theater;
+        this.row = row;
+        this.firstSeat = firstSeat;
+        this.numSeats = numSeats;
+        this.wheelchairAccessible = wheelchairAccessible;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Moves the hold out of HELD, if nothing else did first.
+     * @param finalState CONFIRMED, RELEASED or EXPIRED
+     * @return true if this call ended the hold
+     */
+    boolean finish(int finalState) {
+        return state.compareAndSet(HELD, finalState);
+    }
+
+    /**
+     * Getter for the state
+     * @return HELD, CONFIRMED, RELEASED or EXPIRED
+     */
+    int getState() {
+        return state.get();
+    }
+
+    /**
+     * Checks if the seats are still held, neither confirmed, released nor expired.
+     * @return true if the hold is still active
+     */
+    public boolean isActive() {
+        return state.get() == HELD;
+    }
+
+    /**
+     * Checks if the hold ran out of time before it was confirmed or released.
+     * @return true if the hold expired
+     */
+    public boolean isExpired() {
+        return state.get() == EXPIRED;
+    }
+
+    Theater getTheater() {
+        return theater;
+    }
+
+    Row getRow() {
+        return row;
+    }
+
+    int getFirstSeat() {
+        return firstSeat;
+    }
+
+    /**
+     * Getter for the row number of the held seats
+     * @return row number as int
+     */
+    public int getRowNumber() {
+        return row.getRowNumber();
+    }
+
+    /**
+     * Getter for the number of held seats
+     * @return number of seats as int
+     */
+    public int getNumSeats() {
+        return numSeats;
+    }
+
+    /**
+     * Getter for wheelchair accessible
+     * @return true if the seats were held for a wheelchair user, otherwise false
+     */
+    public boolean isWheelchairAccessible() {
+        return wheelchairAccessible;
+    }
+
+    /**
+     * Getter for the deadline
+     * @return System.nanoTime() after which the hold expires
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatHold{" +
+                "row=" + getRowNumber() +
+                ", firstSeat=" + firstSeat +
+                ", numSeats=" + numSeats +
+                ", wheelchairAccessible=" + wheelchairAccessible +
+                ", active=" + isActive() +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package TheaterReservationSystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * SeatMapRenderEvent is the JDK Flight Recorder event of one seat map asked from a Theater,
+ * telling a cached seat map apart from one that had rows rendered again.
+ */
+@Name("TheaterReservationSystem.SeatMapRender")
+@Label("Seat Map Render")
+@Category({"Theater Reservation"})
+@Description("A theater's seat map being rendered or taken from the cache")
+@StackTrace(false)
+final class SeatMapRenderEvent extends Event {
+
+    @Label("Theater")
+    String theater;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Cached")
+    @Description("True if no row changed since the last seat map")
+    boolean cached;
+
+    @Label("Size")
+    @DataAmount
+    int bytes;
+}
@@ -0,0 +1,38 @@
+package TheaterReservationSystem;
+
+/**
+ * StampedHash is a hash code together with the modification stamp of the object it was computed
+ * from, so the hash can be handed out again until the object changes.
+ */
+final class StampedHash {
+
+  private final long stamp;
+  private final int hash;
+
+  /**
+   * Constructs a new StampedHash.
+   * @param stamp modification stamp read before the hash was computed
+   * @param hash the hash code
+   */
+  StampedHash(long stamp, int hash) {
+    this.stamp = stamp;
+    this.hash = hash;
+  }
+
+  /**
+   * Checks if the hash was computed at the given modification stamp.
+   * @param stamp the current modification stamp of the object
+   * @return true if the hash is still valid, otherwise false
+   */
+  boolean isValidAt(long stamp) {
+    return this.stamp == stamp;
+  }
+
+  /**
+   * Getter for the hash code
+   * @return hash code as int
+   */
+  int getHash() {
+    return hash;
+  }
+}
@@ -0,0 +1,55 @@
+package TheaterReservationSystem;
+
+/**
+ * The placement strategies that come with the system.
+ */
+public enum StandardPlacement implements PlacementStrategy {
+
+  /**
+   * Seats the party at the left end of the leftmost run that fits. This is the cheapest search,
+   * but a party leaving in the middle of a row leaves a gap that only smaller parties can use.
+   */
+  FIRST_FIT {
+    @Override
+    public int cost(int firstSeat, int runLength, int numSeats, int seatsInARow) {
+      return 0;
+    }
+  },
+
+  /**
+   * Seats the party at the left end of the smallest run that fits, so large runs stay whole for
+   * large parties and exact fits close gaps left by cancellations.
+   */
+  BEST_FIT {
+    @Override
+    public int cost(int firstSeat, int runLength, int numSeats, int seatsInARow) {
+      return runLength - numSeats;
+    }
+  },
+
+  /**
+   * Seats the party as close to the middle of the row as the free runs allow, the place with the
+   * best view.
+   */
+  CENTER_OF_ROW {
+    @Override
+    public int firstSeat(int runStart, int runLength, int numSeats, int seatsInARow) {
+      int centered = (seatsInARow - numSeats) / 2;
+      return Math.max(runStart, Math.min(centered, runStart + runLength - numSeats));
+    }
+
+    /**
+     * Distance between the middle of the party and the middle of the row, in half seats, less the
+     * half seat no place can avoid when the party and the row differ in odd and even.
+     */
+    @Override
+    public int cost(int firstSeat, int runLength, int numSeats, int seatsInARow) {
+      return Math.abs(2 * firstSeat + numSeats - seatsInARow) - ((seatsInARow - numSeats) & 1);
+    }
+  };
+
+  @Override
+  public int firstSeat(int runStart, int runLength, int numSeats, int seatsInARow) {
+    return runStart;
+  }
+}
@@ -1,8 +1,13 @@
 package TheaterReservationSystem;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Theater is a class that contains information about theater.
@@ -13,13 +18,54 @@ public class Theater {
   private List<Row> rows;
   private List<Integer> wheelchairRows;
   private int totalRows;
+  /**
+   * rows of each accessibility class, ordered by distance to the center row
+   */
+  private RowIndex standardRowIndex;
+  private RowIndex wheelchairRowIndex;
+  /**
+   * storage holding the occupancy bitmap of every row
+   */
+  private OccupancyStore occupancy;
+  /**
+   * release count of a shared occupancy when the row index last read every row
+   */
+  private volatile long indexedReleaseCount;
+  /**
+   * parties holding seats, with the seats each one holds
+   */
+  private PartyRegistry parties;
+  /**
+   * row publications started and finished; while the two sums differ a row is being published
+   */
+  private final LongAdder commitsStarted = new LongAdder();
+  private final LongAdder commitsFinished = new LongAdder();
+  /**
+   * the last snapshot taken, handed out again while no row changed
+   */
+  private volatile TheaterSnapshot latestSnapshot;
+  /**
+   * the last hash code computed, reused while the modification stamp stays the same
+   */
+  private volatile StampedHash stampedHash;
   /**
    * the minimum row number is 1.
    */
   private static final int MINIMUM_ROW_AND_SEAT_NUMBER = 1;
-  private static final int MAX_NUM_OF_SEAT = 26;
+  /**
+   * widest row supported, seats are labelled A to Z and then AA to ZZ
+   */
+  private static final int MAX_NUM_OF_SEAT = Row.MAX_NUM_OF_SEAT;
   private static final int MIN = 0;
-  private static final int SINGLE_DIGIT_LIMIT = 10;
+  /**
+   * cut by the middle point, used to find the row closest to the center
+   */
+  private static final int CUT_BY_MIDDLE = 2;
+  /**
+   * times a snapshot reads the rows again right away when one of them changed meanwhile, before it
+   * starts yielding to the threads making the changes
+   */
+  private static final int SNAPSHOT_SPINS = 8;
 
 
   /**
@@ -32,22 +78,84 @@ public class Theater {
    */
   public Theater(String name, int totalRows, int numOfSeatInARow, List<Integer> wheelchairRows)
       throws NoAccessibleRowsException, IllegalArgumentException {
+    this(name, totalRows, numOfSeatInARow, wheelchairRows,
+        new HeapOccupancyStore(wordsFor(totalRows, numOfSeatInARow)));
+  }
+
+  /**
+   * Constructs a new Theater object whose seat occupancy lives in the given storage, for example a
+   * MappedOccupancyStore shared with other processes serving the same theater.
+   * @param name name as String
+   * @param totalRows total number of rows in the theater, as int.
+   * @param numOfSeatInARow number of seat for each row,
+   * @param wheelchairRows list of  wheelchair accessible rows,
+   * @param occupancy storage with one word for every 64 seats of each row
+   * @throws NoAccessibleRowsException if there is no wheelchair accessible rows at all in a theater
+   * @throws IllegalArgumentException if the storage has fewer words than the theater's rows need
+   */
+  public Theater(String name, int totalRows, int numOfSeatInARow, List<Integer> wheelchairRows,
+      OccupancyStore occupancy) throws NoAccessibleRowsException, IllegalArgumentException {
     // Validate inputs
     validateTheaterName(name);
 //    checkHasAccessibleRow();
     validateWheelchairRows(wheelchairRows);
     validateSeatsInARow(numOfSeatInARow);
+    if (occupancy.size() < wordsFor(totalRows, numOfSeatInARow)) {
+      throw new IllegalArgumentException("The occupancy storage is too small for the theater.");
+    }
 
     this.name = name;
+    this.occupancy = occupancy;
+    this.indexedReleaseCount = occupancy.getReleaseCount();
+    this.parties = new PartyRegistry();
     this.totalRows = totalRows;
     this.wheelchairRows = new ArrayList<>(wheelchairRows);
-    this.rows = new ArrayList<>();
 
     // Populating rows
+    int wordsPerRow = Row.wordsFor(numOfSeatInARow);
+    boolean[] isWheelchairRow = new boolean[Math.max(totalRows, MIN) + MINIMUM_ROW_AND_SEAT_NUMBER];
+    for (int wheelchairRow : wheelchairRows) {
+      if (wheelchairRow >= MINIMUM_ROW_AND_SEAT_NUMBER && wheelchairRow <= totalRows) {
+        isWheelchairRow[wheelchairRow] = true;
+      }
+    }
+    this.rows = new ArrayList<>(totalRows);
     for (int i = MINIMUM_ROW_AND_SEAT_NUMBER; i <= totalRows; i++) {
-      boolean isWheelchairAccessible = wheelchairRows.contains(i);
-      this.rows.add(new Row(i, numOfSeatInARow, isWheelchairAccessible));
+      boolean isWheelchairAccessible = isWheelchairRow[i];
+      Row row = new Row(i, numOfSeatInARow, isWheelchairAccessible, occupancy,
+          (i - MINIMUM_ROW_AND_SEAT_NUMBER) * wordsPerRow, parties);
+      row.attach(this);
+      this.rows.add(row);
+    }
+    buildRowIndexes();
+  }
+
+  /**
+   * Returns the number of occupancy words a theater needs, one for every 64 seats of each row.
+   * @param totalRows total number of rows in the theater, as int.
+   * @param numOfSeatInARow number of seat for each row
+   * @return number of words as int
+   */
+  static int wordsFor(int totalRows, int numOfSeatInARow) {
+    return Math.max(totalRows, MIN) * Row.wordsFor(Math.max(numOfSeatInARow, MIN));
+  }
+
+  /**
+   * helper function to build the row index of each accessibility class.
+   */
+  private void buildRowIndexes() {
+    int centerRow = rows.size() / CUT_BY_MIDDLE;
+    List<Row> standardRows = new ArrayList<>();
+    List<Row> accessibleRows = new ArrayList<>();
+    for (Row row : rows) {
+      if (row.isWheelchairAccessible()) {
+        accessibleRows.add(row);
+      } else {
+        standardRows.add(row);
+      }
     }
+    this.standardRowIndex = new RowIndex(standardRows, centerRow);
+    this.wheelchairRowIndex = new RowIndex(accessibleRows, centerRow);
   }
 
   private void validateSeatsInARow(int numOfSeatInARow) throws IllegalArgumentException {
@@ -66,6 +174,30 @@ public class Theater {
     }
   }
 
+  /**
+   * Getter for the registry of parties holding seats in this theater
+   * @return the party registry
+   */
+  public PartyRegistry getParties() {
+    return parties;
+  }
+
+  /**
+   * Finds the seats held by a party, using the registry's reverse index rather than scanning the
+   * rows.
+   * @param name name of the party
+   * @return the seats held by the party, empty if it holds none
+   */
+  public List<Seat> findSeats(String name) {
+    int[] seatKeys = parties.getSeatKeys(parties.findId(name));
+    List<Seat> seats = new ArrayList<>(seatKeys.length);
+    for (int seatKey : seatKeys) {
+      Row row = rows.get(PartyRegistry.rowNumberOf(seatKey) - MINIMUM_ROW_AND_SEAT_NUMBER);
+      seats.add(row.get(PartyRegistry.seatIndexOf(seatKey)));
+    }
+    return seats;
+  }
+
   /**
    * Getter for total number of rows
    * @return total number of rows as int
@@ -112,6 +244,170 @@ public class Theater {
     return 0;  // Return a default value if there are no rows.
   }
 
+  /**
+   * Finds the row closest to the center row that has enough adjacent free seats for a party.
+   *
+   * @param numSeats number of adjacent seats required
+   * @param wheelchairAccessible true if the row should be wheelchair accessible, otherwise false
+   * @return the best matching row or null if no suitable row is found
+   */
+  public Row findBestRow(int numSeats, boolean wheelchairAccessible) {
+    Row bestRow = rowIndex(wheelchairAccessible).findBestRow(numSeats);
+    if (bestRow == null && occupancy.isShared()) {
+      // other processes do not update our index, so seats they released may be missing from it;
+      // only a release can hide seats from the index, so near sell-out a miss re-reads the rows
+      // only when some process released seats since the last read
+      if (occupancy.getReleaseCount() != indexedReleaseCount) {
+        refreshRowIndex();
+        bestRow = rowIndex(wheelchairAccessible).findBestRow(numSeats);
+      }
+    }
+    return bestRow;
+  }
+
+  /**
+   * Checks if a party of the given size fits in some row of either accessibility class. The row
+   * indexes keep the largest free block of each class up to date on every change, so a party that
+   * cannot fit anywhere is turned away in constant time.
+   * @param numSeats number of adjacent seats required
+   * @return true if some row has enough adjacent free seats, otherwise false
+   */
+  public boolean hasContinuousSeats(int numSeats) {
+    if (standardRowIndex.getLargestFreeRun() >= numSeats
+        || wheelchairRowIndex.getLargestFreeRun() >= numSeats) {
+      return true;
+    }
+    return occupancy.isShared()
+        && (findBestRow(numSeats, false) != null || findBestRow(numSeats, true) != null);
+  }
+
+  /**
+   * Returns the number of free seats in the rows of one accessibility class, kept up to date on
+   * every reservation and release. Seats released by other processes sharing the occupancy are
+   * only counted after refreshRowIndex.
+   * @param wheelchairAccessible true for the wheelchair accessible rows
+   * @return free seats as int
+   */
+  public int getFreeSeats(boolean wheelchairAccessible) {
+    return rowIndex(wheelchairAccessible).getFreeSeats();
+  }
+
+  /**
+   * Returns the largest block of adjacent free seats in the rows of one accessibility class, see
+   * getFreeSeats(boolean).
+   * @param wheelchairAccessible true for the wheelchair accessible rows
+   * @return largest free block as int
+   */
+  public int getLargestFreeRun(boolean wheelchairAccessible) {
+    return rowIndex(wheelchairAccessible).getLargestFreeRun();
+  }
+
+  /**
+   * Re-reads the free seats of every row into the row index. Only needed when the occupancy is
+   * shared with other processes, whose bookings the theater does not see happen.
+   */
+  public void refreshRowIndex() {
+    indexedReleaseCount = occupancy.getReleaseCount();
+    for (Row row : rows) {
+      rowChanged(row);
+    }
+    standardRowIndex.recountFreeSeats();
+    wheelchairRowIndex.recountFreeSeats();
+  }
+
+  /**
+   * Keeps the row index up to date after seats of a row were reserved or released.
+   * @param row the row that changed
+   */
+  void rowChanged(Row row) {
+    rowIndex(row.isWheelchairAccessible()).update(row);
+  }
+
+  /**
+   * Keeps the row index up to date after seats of a row were reserved or released, counting the
+   * seats the change freed or took.
+   * @param row the row that changed
+   * @param freeSeatsDelta seats freed by the change, negative if it took seats
+   */
+  void rowChanged(Row row, int freeSeatsDelta) {
+    RowIndex rowIndex = rowIndex(row.isWheelchairAccessible());
+    rowIndex.addFreeSeats(freeSeatsDelta);
+    rowIndex.update(row);
+  }
+
+  /**
+   * Marks the start of a row publishing a change.
+   */
+  void commitStarted() {
+    commitsStarted.increment();
+  }
+
+  /**
+   * Marks the end of a row publishing a change.
+   */
+  void commitFinished() {
+    commitsFinished.increment();
+  }
+
+  /**
+   * Returns a stamp that grows with every change to the seats of this theater. Comparing two
+   * stamps tells in constant time whether anything changed in between, and a snapshot's version
+   * is the stamp it was taken at. Changes made by other processes sharing the occupancy do not
+   * move the stamp.
+   * @return the modification stamp as long
+   */
+  public long getModificationStamp() {
+    return commitsFinished.sum();
+  }
+
+  /**
+   * Returns an immutable view of the seats reserved in this theater. The view is consistent: it
+   * holds every change committed before its version and none after, because it is only handed
+   * out if no row published a change, or was in the middle of a change spanning several words,
+   * while the rows were read, and the rows are read again otherwise. Rows publish a new copy of their bitmap on every change, so taking a snapshot only
+   * reads those copies and never holds up a reservation. While nothing changes the same snapshot
+   * is returned again.
+   *
+   * A theater sharing its occupancy with other processes cannot see their changes being made, so
+   * its snapshots are read fresh every time and only each row is guaranteed to be consistent.
+   * @return the snapshot
+   */
+  public TheaterSnapshot snapshot() {
+    boolean shared = occupancy.isShared();
+    long version = commitsFinished.sum();
+    TheaterSnapshot latest = latestSnapshot;
+    if (!shared && latest != null && latest.getVersion() == version && commitsStarted.sum() == version) {
+      return latest;
+    }
+    long[][] occupancyByRow = new long[rows.size()][];
+    for (int attempt = 1; ; attempt++) {
+      for (int i = 0; i < occupancyByRow.length; i++) {
+        occupancyByRow[i] = rows.get(i).committedOccupancy();
+      }
+      if (shared || commitsStarted.sum() == version) {
+        break;
+      }
+      if (attempt >= SNAPSHOT_SPINS) {
+        Thread.yield();
+      }
+      version = commitsFinished.sum();
+    }
+    TheaterSnapshot snapshot = new TheaterSnapshot(name, version, rows, occupancyByRow);
+    if (!shared) {
+      latestSnapshot = snapshot;
+    }
+    return snapshot;
+  }
+
+  /**
+   * helper function to get the row index of one accessibility class.
+   * @param wheelchairAccessible true for the wheelchair accessible rows
+   * @return the row index
+   */
+  private RowIndex rowIndex(boolean wheelchairAccessible) {
+    return wheelchairAccessible ? wheelchairRowIndex : standardRowIndex;
+  }
+
   /**
    * helper function to check if theater has valid name.
    * @param name name as String
@@ -139,30 +435,82 @@ public class Theater {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     Theater theater = (Theater) o;
+    if (hashCode() != theater.hashCode()) {
+      return false;
+    }
     return Objects.equals(name, theater.name) && Objects.equals(rows, theater.rows) && Objects.equals(wheelchairRows, theater.wheelchairRows);
   }
 
+  /**
+   * Hashes the theater and all its seats. The hash is cached against the modification stamp, so
+   * hashing an unchanged theater again takes constant time.
+   */
   @Override
   public int hashCode() {
-    return Objects.hash(name, rows, wheelchairRows);
+    long stamp = getModificationStamp();
+    StampedHash cached = stampedHash;
+    if (cached != null && cached.isValidAt(stamp) && !occupancy.isShared()) {
+      return cached.getHash();
+    }
+    int hash = Objects.hash(name, rows, wheelchairRows);
+    stampedHash = new StampedHash(stamp, hash);
+    return hash;
   }
 
-  @Override
-  public String toString() {
-    StringBuilder theaterString = new StringBuilder();
+  /**
+   * Writes the seat map of the latest snapshot to an output stream in a single write. Rows are
+   * only rendered again if their seats changed since the last seat map, and showing an unchanged
+   * theater reuses the last rendering.
+   * @param out the stream to write to
+   * @throws IOException if the stream cannot be written
+   */
+  public void writeSeatMap(OutputStream out) throws IOException {
+    out.write(renderSeatMap());
+  }
 
-    for (Row row : rows) {
-      if (row.getRowNumber() < SINGLE_DIGIT_LIMIT) {
-        theaterString.append(" ");  // Pad single digit row numbers with space
-      }
+  /**
+   * Returns the seat map as a read-only buffer over the cached rendering, so it can be written to
+   * a channel without copying.
+   * @return the seat map as ASCII bytes
+   */
+  ByteBuffer seatMapBuffer() {
+    return ByteBuffer.wrap(renderSeatMap()).asReadOnlyBuffer();
+  }
 
-      theaterString.append(row.getRowNumber()).append(" ");
-      theaterString.append(row.toString());
-      theaterString.append("\n");
-    }
+  /**
+   * Writes the seat map into a buffer, see writeSeatMap(OutputStream).
+   * @param target the buffer to write to
+   * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+   */
+  public void writeSeatMap(ByteBuffer target) {
+    target.put(renderSeatMap());
+  }
 
-    return theaterString.toString();
+  /**
+   * Returns the bytes of the latest snapshot's seat map, and records a SeatMapRenderEvent while a
+   * flight recording is running. The returned array is shared with later calls and must not be
+   * changed.
+   * @return the seat map as ASCII bytes
+   */
+  private byte[] renderSeatMap() {
+    SeatMapRenderEvent event = new SeatMapRenderEvent();
+    event.begin();
+    TheaterSnapshot snapshot = snapshot();
+    boolean cached = snapshot.isRendered();
+    byte[] bytes = snapshot.renderSeatMap();
+    event.end();
+    if (event.shouldCommit()) {
+      event.theater = name;
+      event.rows = rows.size();
+      event.cached = cached;
+      event.bytes = bytes.length;
+      event.commit();
+    }
+    return bytes;
   }
 
+  @Override
+  public String toString() {
+    return new String(renderSeatMap(), StandardCharsets.US_ASCII);
+  }
 }
-
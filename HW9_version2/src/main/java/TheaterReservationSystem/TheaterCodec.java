@@ -0,0 +1,405 @@
+package TheaterReservationSystem;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TheaterCodec writes a theater and its bookings in a compact binary form and reads it back, to
+ * checkpoint a theater or move it to another process without losing party names. All numbers are
+ * big-endian; counts marked varint use 7 bits per byte, low bits first.
+ * <pre>
+ *   magic "THTR" (4 bytes) | format version (2 bytes)
+ *   layout: name length (2 bytes) | name (UTF-8) | rows (4 bytes) | seats in a row (2 bytes)
+ *           | wheelchair row count (4 bytes) | wheelchair row numbers (4 bytes each)
+ *   parties: party count (varint) | per party: name length (2 bytes) | name (UTF-8)
+ *   per row: occupancy bitmap (8 bytes per 64 seats, see OccupancyStore)
+ *            | party of each reserved seat, run-length coded as pairs of
+ *              party number (varint, 1 + position in the party list)
+ *              and number of reserved seats in the run (varint)
+ * </pre>
+ * A party booking a block of seats therefore costs two or three bytes per row besides its name,
+ * and a full row of 26 seats takes 8 bytes of bitmap where the seat map takes 56 characters.
+ * Seats that belong to no party, such as seat holds, are encoded as free: a hold does not
+ * outlive the process that made it.
+ *
+ * The occupancy is taken from one TheaterSnapshot, so it is consistent even while bookings go on;
+ * party names are read as the seats are encoded. Encoding to a FileChannel and decoding from one
+ * both stream through a fixed buffer, however large the theater is.
+ */
+public final class TheaterCodec {
+
+  /**
+   * "THTR" in ASCII
+   */
+  private static final int MAGIC = 0x54485452;
+  private static final short FORMAT_VERSION = 1;
+  private static final int WORD_SHIFT = 6;
+  private static final int MAX_NAME_BYTES = 0xFFFF;
+  private static final int VARINT_BITS = 7;
+  private static final int VARINT_MASK = 0x7F;
+  private static final int VARINT_MORE = 0x80;
+  private static final int MAX_VARINT_BYTES = 5;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private TheaterCodec() {
+  }
+
+  /**
+   * Encodes a theater into a buffer.
+   * @param theater the theater to encode
+   * @param target the buffer to write to, starting at its position
+   * @throws BufferOverflowException if the buffer does not have enough room
+   * @throws IllegalArgumentException if a name is longer than 65535 bytes in UTF-8
+   */
+  public static void encode(Theater theater, ByteBuffer target)
+      throws BufferOverflowException, IllegalArgumentException {
+    try {
+      new Encoder(target, null).encode(theater);
+    } catch (IOException e) {
+      throw new IllegalStateException("A buffer without a channel cannot fail to write.", e);
+    }
+  }
+
+  /**
+   * Encodes a theater into a file channel, starting at its position.
+   * @param theater the theater to encode
+   * @param channel the channel to write to
+   * @throws IOException if the channel cannot be written
+   * @throws IllegalArgumentException if a name is longer than 65535 bytes in UTF-8
+   */
+  public static void write(Theater theater, FileChannel channel) throws IOException, IllegalArgumentException {
+    Encoder encoder = new Encoder(ByteBuffer.allocateDirect(BUFFER_SIZE), channel);
+    encoder.encode(theater);
+    encoder.flush();
+  }
+
+  /**
+   * Decodes a theater from a buffer, starting at its position.
+   * @param source the buffer to read from
+   * @return a new theater with the encoded layout and bookings
+   * @throws IllegalArgumentException if the buffer does not hold an encoded theater
+   */
+  public static Theater decode(ByteBuffer source) throws IllegalArgumentException {
+    try {
+      return new Decoder(source, null).decode();
+    } catch (IOException e) {
+      throw new IllegalStateException("A buffer without a channel cannot fail to read.", e);
+    }
+  }
+
+  /**
+   * Decodes a theater from a file channel, starting at its position. The channel may be read
+   * beyond the end of the encoded theater.
+   * @param channel the channel to read from
+   * @return a new theater with the encoded layout and bookings
+   * @throws IOException if the channel cannot be read
+   * @throws IllegalArgumentException if the channel does not hold an encoded theater
+   */
+  public static Theater read(FileChannel channel) throws IOException, IllegalArgumentException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    buffer.flip();
+    return new Decoder(buffer, channel).decode();
+  }
+
+  /**
+   * Writes the encoded form into a buffer, handing full buffers to the channel if there is one.
+   */
+  private static final class Encoder {
+    private final ByteBuffer buffer;
+    private final FileChannel channel;
+
+    private Encoder(ByteBuffer buffer, FileChannel channel) {
+      this.buffer = buffer;
+      this.channel = channel;
+    }
+
+    private void encode(Theater theater) throws IOException {
+      TheaterSnapshot snapshot = theater.snapshot();
+      List<Row> rows = theater.getRows();
+      PartyRegistry registry = theater.getParties();
+
+      // read the party of every reserved seat first, so the party list can go in front of the rows
+      // held seats are left out of the encoded bitmap
+      Map<Integer, Integer> partyNumbers = new HashMap<>();
+      List<String> partyNames = new ArrayList<>();
+      long[][] occupancy = new long[rows.size()][];
+      int[][] seatParties = new int[rows.size()][];
+      for (int r = 0; r < rows.size(); r++) {
+        Row row = rows.get(r);
+        long[] reserved = snapshot.getOccupancy(row.getRowNumber()).clone();
+        int[] parties = new int[snapshot.getReservedSeats(row.getRowNumber())];
+        int seat = 0;
+        for (int word = 0; word < reserved.length; word++) {
+          for (long bits = reserved[word]; bits != 0; bits &= bits - 1) {
+            int partyId = row.getPartyId((word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits));
+            String name = partyId == PartyRegistry.NO_PARTY ? null : registry.getName(partyId);
+            if (name == null) {
+              reserved[word] &= ~Long.lowestOneBit(bits);
+              continue;
+            }
+            if (!partyNumbers.containsKey(partyId)) {
+              partyNames.add(name);
+              partyNumbers.put(partyId, partyNames.size());
+            }
+            parties[seat++] = partyNumbers.get(partyId);
+          }
+        }
+        occupancy[r] = reserved;
+        seatParties[r] = Arrays.copyOf(parties, seat);
+      }
+
+      ensure(Integer.BYTES + Short.BYTES);
+      buffer.putInt(MAGIC).putShort(FORMAT_VERSION);
+      putName(theater.getName());
+      ensure(Integer.BYTES + Short.BYTES + Integer.BYTES);
+      buffer.putInt(rows.size()).putShort((short) theater.getTotalSeatsInARow());
+      buffer.putInt(theater.getWheelchairRows().size());
+      for (int wheelchairRow : theater.getWheelchairRows()) {
+        ensure(Integer.BYTES);
+        buffer.putInt(wheelchairRow);
+      }
+      putVarint(partyNames.size());
+      for (String name : partyNames) {
+        putName(name);
+      }
+      for (int r = 0; r < rows.size(); r++) {
+        for (long word : occupancy[r]) {
+          ensure(Long.BYTES);
+          buffer.putLong(word);
+        }
+        int[] parties = seatParties[r];
+        for (int start = 0, end; start < parties.length; start = end) {
+          end = start + 1;
+          while (end < parties.length && parties[end] == parties[start]) {
+            end++;
+          }
+          putVarint(parties[start]);
+          putVarint(end - start);
+        }
+      }
+    }
+
+    private void putName(String name) throws IOException {
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      if (bytes.length > MAX_NAME_BYTES) {
+        throw new IllegalArgumentException("Name is too long to encode.");
+      }
+      ensure(Short.BYTES);
+      buffer.putShort((short) bytes.length);
+      for (int written = 0; written < bytes.length; ) {
+        ensure(1);
+        int chunk = Math.min(buffer.remaining(), bytes.length - written);
+        buffer.put(bytes, written, chunk);
+        written += chunk;
+      }
+    }
+
+    private void putVarint(int value) throws IOException {
+      ensure(MAX_VARINT_BYTES);
+      while ((value & ~VARINT_MASK) != 0) {
+        buffer.put((byte) ((value & VARINT_MASK) | VARINT_MORE));
+        value >>>= VARINT_BITS;
+      }
+      buffer.put((byte) value);
+    }
+
+    /**
+     * Makes room for a field, writing the buffer to the channel if there is one.
+     */
+    private void ensure(int size) throws IOException {
+      if (buffer.remaining() < size) {
+        if (channel == null) {
+          throw new BufferOverflowException();
+        }
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Reads the encoded form from a buffer, refilling it from the channel if there is one.
+   */
+  private static final class Decoder {
+    private final ByteBuffer buffer;
+    private final FileChannel channel;
+
+    private Decoder(ByteBuffer buffer, FileChannel channel) {
+      this.buffer = buffer;
+      this.channel = channel;
+    }
+
+    private Theater decode() throws IOException {
+      require(Integer.BYTES + Short.BYTES);
+      if (buffer.getInt() != MAGIC) {
+        throw new IllegalArgumentException("Not an encoded theater.");
+      }
+      short version = buffer.getShort();
+      if (version != FORMAT_VERSION) {
+        throw new IllegalArgumentException("Unsupported theater format version " + version + ".");
+      }
+      String name = getName();
+      require(Integer.BYTES + Short.BYTES + Integer.BYTES);
+      int totalRows = buffer.getInt();
+      int seatsInARow = Short.toUnsignedInt(buffer.getShort());
+      int wheelchairRowCount = buffer.getInt();
+      if (totalRows < 0 || wheelchairRowCount < 0) {
+        throw new IllegalArgumentException("Not an encoded theater.");
+      }
+      // every row takes at least its bitmap, so corrupt counts cannot make us allocate a huge theater
+      long rowBytes = (long) Row.wordsFor(seatsInARow) * Long.BYTES;
+      if ((long) wheelchairRowCount * Integer.BYTES + totalRows * rowBytes > available()) {
+        throw new IllegalArgumentException("The encoded theater is cut short.");
+      }
+      List<Integer> wheelchairRows = new ArrayList<>();
+      for (int i = 0; i < wheelchairRowCount; i++) {
+        require(Integer.BYTES);
+        wheelchairRows.add(buffer.getInt());
+      }
+      Theater theater;
+      try {
+        theater = new Theater(name, totalRows, seatsInARow, wheelchairRows);
+      } catch (NoAccessibleRowsException e) {
+        throw new IllegalArgumentException("The encoded theater has no wheelchair accessible rows.", e);
+      }
+
+      int partyCount = getVarint();
+      if ((long) partyCount * Short.BYTES > available()) {
+        throw new IllegalArgumentException("The encoded theater is cut short.");
+      }
+      String[] partyNames = new String[partyCount + 1];
+      for (int i = 1; i <= partyCount; i++) {
+        partyNames[i] = getName();
+      }
+      long[] reserved = new long[Row.wordsFor(seatsInARow)];
+      for (Row row : theater.getRows()) {
+        int reservedSeats = 0;
+        for (int word = 0; word < reserved.length; word++) {
+          require(Long.BYTES);
+          reserved[word] = buffer.getLong();
+          reservedSeats += Long.bitCount(reserved[word]);
+        }
+        reserveSeats(row, reserved, reservedSeats, partyNames);
+      }
+      return theater;
+    }
+
+    /**
+     * Reads the party runs of a row and reserves its seats, a block of adjacent seats of the same
+     * party at a time.
+     */
+    private void reserveSeats(Row row, long[] reserved, int reservedSeats, String[] partyNames)
+        throws IOException {
+      int runParty = 0;
+      int runLeft = 0;
+      int blockStart = Row.NO_SEATS_FOUND;
+      int blockParty = 0;
+      int previousSeat = Row.NO_SEATS_FOUND;
+      for (int word = 0; word < reserved.length; word++) {
+        for (long bits = reserved[word]; bits != 0; bits &= bits - 1) {
+          int seat = (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+          if (seat >= row.getNumOfSeatInARow()) {
+            throw new IllegalArgumentException("The encoded occupancy has seats outside the row.");
+          }
+          if (runLeft == 0) {
+            runParty = getVarint();
+            runLeft = getVarint();
+            if (runParty <= 0 || runParty >= partyNames.length || runLeft <= 0 || runLeft > reservedSeats) {
+              throw new IllegalArgumentException("The encoded parties do not match the occupancy.");
+            }
+          }
+          if (blockStart != Row.NO_SEATS_FOUND && (seat != previousSeat + 1 || runParty != blockParty)) {
+            row.reserveSeats(blockStart, previousSeat + 1 - blockStart, partyNames[blockParty]);
+            blockStart = Row.NO_SEATS_FOUND;
+          }
+          if (blockStart == Row.NO_SEATS_FOUND) {
+            blockStart = seat;
+            blockParty = runParty;
+          }
+          previousSeat = seat;
+          runLeft--;
+          reservedSeats--;
+        }
+      }
+      if (runLeft != 0) {
+        throw new IllegalArgumentException("The encoded parties do not match the occupancy.");
+      }
+      if (blockStart != Row.NO_SEATS_FOUND) {
+        row.reserveSeats(blockStart, previousSeat + 1 - blockStart, partyNames[blockParty]);
+      }
+    }
+
+    private String getName() throws IOException {
+      require(Short.BYTES);
+      byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+      for (int read = 0; read < bytes.length; ) {
+        require(1);
+        int chunk = Math.min(buffer.remaining(), bytes.length - read);
+        buffer.get(bytes, read, chunk);
+        read += chunk;
+      }
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int getVarint() throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < MAX_VARINT_BYTES * VARINT_BITS; shift += VARINT_BITS) {
+        require(1);
+        byte b = buffer.get();
+        value |= (b & VARINT_MASK) << shift;
+        if ((b & VARINT_MORE) == 0) {
+          if (value < 0) {
+            break;
+          }
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Not an encoded theater.");
+    }
+
+    /**
+     * Counts the bytes left to read, in the buffer and in the channel if there is one.
+     */
+    private long available() throws IOException {
+      long available = buffer.remaining();
+      if (channel != null) {
+        available += Math.max(channel.size() - channel.position(), 0);
+      }
+      return available;
+    }
+
+    /**
+     * Makes sure a field can be read, refilling the buffer from the channel if there is one.
+     */
+    private void require(int size) throws IOException {
+      if (buffer.remaining() >= size) {
+        return;
+      }
+      if (channel != null) {
+        buffer.compact();
+        while (buffer.position() < size && channel.read(buffer) >= 0) {
+          // keep reading until the field is complete or the channel ends
+        }
+        buffer.flip();
+      }
+      if (buffer.remaining() < size) {
+        throw new IllegalArgumentException("The encoded theater is cut short.");
+      }
+    }
+  }
+}
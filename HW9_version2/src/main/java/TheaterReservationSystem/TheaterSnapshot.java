@@ -0,0 +1,182 @@
+package TheaterReservationSystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * TheaterSnapshot is an immutable view of a theater's occupancy at one version. Every row
+ * publishes a fresh copy of its bitmap whenever a change to it is committed, and a snapshot
+ * collects the copies of all rows at a moment when no change was being published, so it shows
+ * every booking committed up to its version and none after, and never half a block of seats.
+ * Bookers are never held up by readers: taking a snapshot only reads the published copies, and
+ * an unchanged theater hands out the same snapshot again.
+ *
+ * The version counts the changes committed to the theater, so a snapshot with a higher version
+ * of the same theater is newer. Rendering the seat map is done at most once per snapshot.
+ */
+public final class TheaterSnapshot {
+
+  private static final int WORD_SHIFT = 6;
+
+  private final String name;
+  private final long version;
+  private final List<Row> rows;
+  /**
+   * the published bitmap of every row, by row number - 1; never modified
+   */
+  private final long[][] occupancy;
+  private volatile byte[] seatMap;
+
+  /**
+   * Constructs a new TheaterSnapshot.
+   * @param name name of the theater
+   * @param version number of changes committed to the theater when the snapshot was taken
+   * @param rows rows of the theater, used for their layout only
+   * @param occupancy published bitmap of every row
+   */
+  TheaterSnapshot(String name, long version, List<Row> rows, long[][] occupancy) {
+    this.name = name;
+    this.version = version;
+    this.rows = Collections.unmodifiableList(rows);
+    this.occupancy = occupancy;
+  }
+
+  /**
+   * Getter for the version
+   * @return number of changes committed to the theater when the snapshot was taken
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Getter for the name of the theater
+   * @return name as String
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Getter for the number of rows
+   * @return number of rows as int
+   */
+  public int getTotalRows() {
+    return occupancy.length;
+  }
+
+  /**
+   * Checks if a seat was reserved in this snapshot.
+   * @param rowNumber number of the row, starting from 1
+   * @param index index of the seat in the row, starting from 0
+   * @return true if the seat was reserved, otherwise false
+   * @throws IndexOutOfBoundsException if the row or seat is outside the theater
+   */
+  public boolean isSeatReserved(int rowNumber, int index) throws IndexOutOfBoundsException {
+    Objects.checkIndex(index, rows.get(rowNumber - 1).getNumOfSeatInARow());
+    return (occupancy[rowNumber - 1][index >>> WORD_SHIFT] & (1L << index)) != 0;
+  }
+
+  /**
+   * Counts the reserved seats of a row in this snapshot.
+   * @param rowNumber number of the row, starting from 1
+   * @return number of reserved seats as int
+   */
+  public int getReservedSeats(int rowNumber) {
+    int reserved = 0;
+    for (long word : occupancy[rowNumber - 1]) {
+      reserved += Long.bitCount(word);
+    }
+    return reserved;
+  }
+
+  /**
+   * Returns the bitmap of a row, see OccupancyStore for the layout.
+   * @param rowNumber number of the row, starting from 1
+   * @return the bitmap, shared and never to be modified
+   */
+  long[] getOccupancy(int rowNumber) {
+    return occupancy[rowNumber - 1];
+  }
+
+  /**
+   * Writes the seat map of this snapshot to an output stream in a single write.
+   * @param out the stream to write to
+   * @throws IOException if the stream cannot be written
+   */
+  public void writeSeatMap(OutputStream out) throws IOException {
+    out.write(renderSeatMap());
+  }
+
+  /**
+   * Returns the seat map as a read-only buffer, so it can be written to a channel without copying.
+   * @return the seat map as ASCII bytes
+   */
+  ByteBuffer seatMapBuffer() {
+    return ByteBuffer.wrap(renderSeatMap()).asReadOnlyBuffer();
+  }
+
+  /**
+   * Checks if the seat map of this snapshot was rendered already.
+   * @return true if renderSeatMap returns cached bytes
+   */
+  boolean isRendered() {
+    return seatMap != null;
+  }
+
+  /**
+   * Returns the bytes of the seat map, rendering them on the first call. Rows reuse their
+   * rendered line while their bitmap stays the same. The returned array is shared and must not be
+   * changed.
+   * @return the seat map as ASCII bytes
+   */
+  byte[] renderSeatMap() {
+    byte[] bytes = seatMap;
+    if (bytes != null) {
+      return bytes;
+    }
+    Row.RenderedLine[] lines = new Row.RenderedLine[occupancy.length];
+    int length = 0;
+    for (int i = 0; i < lines.length; i++) {
+      lines[i] = rows.get(i).renderLine(occupancy[i]);
+      length += lines[i].getBytes().length;
+    }
+    bytes = new byte[length];
+    int position = 0;
+    for (Row.RenderedLine line : lines) {
+      System.arraycopy(line.getBytes(), 0, bytes, position, line.getBytes().length);
+      position += line.getBytes().length;
+    }
+    seatMap = bytes;
+    return bytes;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TheaterSnapshot that = (TheaterSnapshot) o;
+    return version == that.version && Objects.equals(name, that.name)
+        && Arrays.deepEquals(occupancy, that.occupancy);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, version, Arrays.deepHashCode(occupancy));
+  }
+
+  @Override
+  public String toString() {
+    return new String(renderSeatMap(), StandardCharsets.US_ASCII);
+  }
+}
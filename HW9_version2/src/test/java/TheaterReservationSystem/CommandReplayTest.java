@@ -0,0 +1,116 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CommandReplayTest {
+  private Theater theater;
+  private ReservationService service;
+  private Path commandPath;
+
+  @BeforeEach
+  void setUp() throws NoAccessibleRowsException, IOException {
+    theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    service = new ReservationService(theater);
+    commandPath = Files.createTempFile("commands", ".txt");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(commandPath);
+  }
+
+  @Test
+  void replay() throws IOException {
+    Files.writeString(commandPath, "Reserve 3\r\nAnna\r\nno\r\n\nreserve 2\nBen\nmaybe\nYES\n"
+        + "reserve 12\nreserve x\nshow\nhello\ndone\nreserve 1\nCleo\nno\n", StandardCharsets.UTF_8);
+    ByteArrayOutputStream transcript = new ByteArrayOutputStream();
+
+    ReplayReport report = CommandReplay.replay(commandPath, theater, service, transcript);
+
+    assertEquals(13, report.getCommands());
+    assertEquals(2, report.getReserved());
+    assertEquals(1, report.getRejected());
+    assertEquals(4, report.getInvalid());
+    assertEquals("Anna", theater.getRows().get(6).get(0).getReservedFor());
+    assertEquals("Ben", theater.getRows().get(5).get(0).getReservedFor());
+    assertTrue(theater.findSeats("Cleo").isEmpty());
+    String text = transcript.toString(StandardCharsets.UTF_8);
+    assertTrue(text.startsWith("I’ve reserved 3 seats for you at the Roxy in row 7, Anna.\n"));
+    assertTrue(text.contains("Please enter a valid seat number to reserve\n"));
+  }
+
+  @Test
+  void replayParsesLinesLikeTheConsole() throws IOException {
+    Files.writeString(commandPath, "reserve3\nreserve 2 please\nAnna\nsure\nno\nhelo\n",
+        StandardCharsets.UTF_8);
+    ByteArrayOutputStream transcript = new ByteArrayOutputStream();
+
+    ReplayReport report = CommandReplay.replay(commandPath, theater, service, transcript);
+
+    assertEquals(6, report.getCommands());
+    assertEquals(1, report.getReserved());
+    assertEquals(3, report.getInvalid());
+    assertEquals(2, theater.findSeats("Anna").size());
+    assertEquals("Please enter a valid seat number to reserve\n"
+        + "Invalid input. Please answer with 'yes' or 'no'.\n"
+        + "I’ve reserved 2 seats for you at the Roxy in row 7, Anna.\n"
+        + "Please enter a valid command. To get command guidance, please enter 'help' in console\n",
+        transcript.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void replayStaysInStepWhenNoRowHasSeatsTogether() throws IOException {
+    StringBuilder commands = new StringBuilder();
+    for (int i = 0; i < 15; i++) {
+      commands.append("reserve 10\nParty").append(i).append(i < 13 ? "\nno\n" : "\nyes\n");
+    }
+    commands.append("reserve 10\nshow\n\ndone\n");
+    Files.writeString(commandPath, commands, StandardCharsets.UTF_8);
+    ByteArrayOutputStream transcript = new ByteArrayOutputStream();
+
+    ReplayReport report = CommandReplay.replay(commandPath, theater, service, transcript);
+
+    assertEquals(49, report.getCommands());
+    assertEquals(15, report.getReserved());
+    assertEquals(1, report.getRejected());
+    assertEquals(1, report.getInvalid());
+    String text = transcript.toString(StandardCharsets.UTF_8);
+    assertTrue(text.contains("Party14.\nSorry, we don’t have that many seats together for you.\n"));
+    assertTrue(text.endsWith("Please enter a valid command. To get command guidance, please enter 'help' in console\n"));
+    assertFalse(text.contains("Invalid input."));
+  }
+
+  @Test
+  void replayWithoutTrailingLineFeed() throws IOException {
+    Files.writeString(commandPath, "reserve 10\nAnna\nno", StandardCharsets.UTF_8);
+    ReplayReport report = CommandReplay.replay(commandPath, theater, service, null);
+    assertEquals(3, report.getCommands());
+    assertEquals(1, report.getReserved());
+    assertEquals(10, theater.findSeats("Anna").size());
+  }
+
+  @Test
+  void replayLargeFile() throws IOException {
+    StringBuilder commands = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      commands.append("reserve 1\nParty").append(i).append("\nno\n");
+    }
+    Files.writeString(commandPath, commands, StandardCharsets.UTF_8);
+    ReplayReport report = CommandReplay.replay(commandPath, theater, service, null);
+    assertEquals(300000, report.getCommands());
+    assertEquals(130, report.getReserved());
+    assertEquals(100000 - 130, report.getRejected());
+    assertTrue(report.getCommandsPerSecond() > 0);
+    assertTrue(report.toString().startsWith("Replayed 300000 commands"));
+  }
+}
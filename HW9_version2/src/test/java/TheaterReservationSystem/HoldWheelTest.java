@@ -0,0 +1,93 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HoldWheelTest {
+  private static final long TICK = 100;
+  private HoldWheel wheel;
+  private Row row;
+
+  @BeforeEach
+  void setUp() {
+    // 8 buckets of 100 ns, starting at time 1000
+    wheel = new HoldWheel(5, TICK, 1000);
+    row = new Row(1, 10, false);
+  }
+
+  private SeatHold holdUntil(long deadline) {
+    SeatHold hold = new SeatHold(null, row, 0, 1, false, deadline);
+    wheel.add(hold);
+    return hold;
+  }
+
+  @Test
+  void expiresAtDeadline() {
+    SeatHold early = holdUntil(1250);
+    SeatHold late = holdUntil(1500);
+    assertEquals(2, wheel.size());
+    assertTrue(wheel.expire(1299).isEmpty());
+    assertEquals(List.of(early), wheel.expire(1300));
+    assertTrue(wheel.expire(1450).isEmpty());
+    assertEquals(List.of(late), wheel.expire(1500));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void sameTickFindsNothingToDo() {
+    SeatHold hold = holdUntil(1250);
+    assertSame(Collections.emptyList(), wheel.expire(1100));
+    assertSame(Collections.emptyList(), wheel.expire(1199));
+    assertSame(Collections.emptyList(), wheel.expire(1200));
+    assertEquals(List.of(hold), wheel.expire(1300));
+    assertSame(Collections.emptyList(), wheel.expire(1350));
+  }
+
+  @Test
+  void laterTurnsStayInTheirBucket() {
+    // 2 and 10 share a bucket of the 8-bucket wheel
+    SeatHold now = holdUntil(1200);
+    SeatHold nextTurn = holdUntil(2000);
+    assertEquals(List.of(now), wheel.expire(1200));
+    assertTrue(wheel.expire(1999).isEmpty());
+    assertEquals(List.of(nextTurn), wheel.expire(2000));
+  }
+
+  @Test
+  void removeBeforeExpiry() {
+    SeatHold first = holdUntil(1300);
+    SeatHold second = holdUntil(1300);
+    SeatHold third = holdUntil(1300);
+    wheel.remove(second);
+    wheel.remove(second);
+    assertEquals(2, wheel.size());
+    List<SeatHold> expired = wheel.expire(1300);
+    assertEquals(2, expired.size());
+    assertTrue(expired.contains(first) && expired.contains(third));
+    wheel.remove(first);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void pastDeadlineExpiresAtNextTick() {
+    wheel.expire(1500);
+    SeatHold overdue = holdUntil(1100);
+    assertTrue(wheel.expire(1599).isEmpty());
+    assertEquals(List.of(overdue), wheel.expire(1600));
+  }
+
+  @Test
+  void longPauseSweepsEveryBucketOnce() {
+    for (long deadline = 1100; deadline <= 3000; deadline += 100) {
+      holdUntil(deadline);
+    }
+    SeatHold farAway = holdUntil(1_000_000);
+    assertEquals(20, wheel.expire(50_000).size());
+    assertEquals(1, wheel.size());
+    assertEquals(List.of(farAway), wheel.expire(1_000_000));
+  }
+}
@@ -0,0 +1,78 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+  private LatencyHistogram histogram;
+
+  @BeforeEach
+  void setUp() {
+    histogram = new LatencyHistogram();
+  }
+
+  @Test
+  void empty() {
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+    assertEquals(0.0, histogram.getMean());
+  }
+
+  @Test
+  void smallValuesAreExact() {
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(50, histogram.getValueAtPercentile(50));
+    assertEquals(99, histogram.getValueAtPercentile(99));
+    assertEquals(100, histogram.getValueAtPercentile(100));
+    assertEquals(50.5, histogram.getMean());
+  }
+
+  @Test
+  void largeValuesStayWithinPrecision() {
+    for (long value = 1000; value <= 1_000_000_000L; value *= 10) {
+      histogram.record(value);
+    }
+    long p50 = histogram.getValueAtPercentile(50);
+    assertTrue(p50 >= 1_000_000 && p50 <= 1_000_000 * 65 / 64, String.valueOf(p50));
+    assertEquals(1_000_000_000L, histogram.getValueAtPercentile(100));
+    assertEquals(1_000_000_000L, histogram.getMax());
+  }
+
+  @Test
+  void add() {
+    LatencyHistogram other = new LatencyHistogram();
+    histogram.record(10);
+    other.record(20);
+    other.record(30);
+    histogram.add(other);
+    assertEquals(3, histogram.getCount());
+    assertEquals(30, histogram.getMax());
+    assertEquals(20, histogram.getValueAtPercentile(50));
+  }
+
+  @Test
+  void stripedFromManyThreads() throws InterruptedException {
+    LatencyHistogram striped = new LatencyHistogram(3);
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        for (int i = 1; i <= 1000; i++) {
+          striped.record(i);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(4000, striped.getCount());
+    assertEquals(1000, striped.getMax());
+    long p50 = striped.getValueAtPercentile(50);
+    assertTrue(p50 >= 500 && p50 <= 500 * 65 / 64, String.valueOf(p50));
+  }
+}
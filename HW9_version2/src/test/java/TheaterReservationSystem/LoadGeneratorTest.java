@@ -0,0 +1,69 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LoadGeneratorTest {
+
+  @Test
+  void fillsTheTheater() throws NoAccessibleRowsException, InterruptedException {
+    Theater theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    LoadGenerator generator = new LoadGenerator(theater, new ReservationService(theater),
+        Map.of(1, 1), 0.0, 1, 131, 42);
+
+    LoadReport report = generator.run();
+
+    assertEquals(131, report.getRequests());
+    assertEquals(131, report.getLatencies().getCount());
+    assertEquals(130, report.getCount(ReservationResult.Status.RESERVED));
+    assertEquals(1, report.getCount(ReservationResult.Status.NO_SEATS_TOGETHER));
+    assertEquals(0, theater.getFreeSeats(false));
+    assertEquals(130.0 / 300, report.getOccupancy());
+    assertTrue(report.getRequestsPerSecond() > 0);
+    assertTrue(report.toString().contains("Occupancy:  130 of 300 seats"));
+  }
+
+  @Test
+  void soldOutShowsAreReplaced() throws NoAccessibleRowsException, InterruptedException {
+    Theater theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    LoadReport report = new LoadGenerator(theater, new ReservationService(theater),
+        Map.of(1, 1), 0.0, 1, 1000, 42).run();
+    // Every show seats 130 standard parties, then turns one away and makes way for the next.
+    assertEquals(993, report.getCount(ReservationResult.Status.RESERVED));
+    assertEquals(7, report.getCount(ReservationResult.Status.NO_SEATS_TOGETHER));
+    assertEquals(993.0 / 1200, report.getOccupancy());
+    assertTrue(report.toString().contains("Occupancy:  993 of 1200 seats"));
+  }
+
+  @Test
+  void soldOutShowsAreReplacedUnderContention() throws NoAccessibleRowsException, InterruptedException {
+    Theater theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    LoadReport report = new LoadGenerator(theater, new ReservationService(theater),
+        Map.of(1, 20, 2, 40, 4, 40), 0.05, 4, 5000, 42).run();
+    assertEquals(5000, report.getLatencies().getCount());
+    assertTrue(report.getCount(ReservationResult.Status.RESERVED) > 5000 / 2);
+    assertTrue(report.getOccupancy() > 0.5 && report.getOccupancy() <= 1.0);
+  }
+
+  @Test
+  void tooLargeParties() throws NoAccessibleRowsException, InterruptedException {
+    Theater theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    LoadReport report = new LoadGenerator(theater, new ReservationService(theater),
+        Map.of(12, 1), 0.5, 2, 100, 7).run();
+    assertEquals(100, report.getCount(ReservationResult.Status.TOO_MANY_SEATS_FOR_A_ROW));
+    assertEquals(0.0, report.getOccupancy());
+  }
+
+  @Test
+  void invalidArguments() throws NoAccessibleRowsException {
+    Theater theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    ReservationService service = new ReservationService(theater);
+    assertThrows(IllegalArgumentException.class,
+        () -> new LoadGenerator(theater, service, Map.of(2, 0), 0.0, 1, 10, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new LoadGenerator(theater, service, Map.of(2, 1), 0.0, 0, 10, 1));
+  }
+}
@@ -0,0 +1,134 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MappedOccupancyStoreTest {
+  private Path occupancyPath;
+  private MappedOccupancyStore firstStore;
+  private MappedOccupancyStore secondStore;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    occupancyPath = Files.createTempFile("occupancy", ".map");
+    Files.delete(occupancyPath);
+    // two separate mappings of the same file, like two processes would have
+    firstStore = MappedOccupancyStore.open(occupancyPath, 15, 10);
+    secondStore = MappedOccupancyStore.open(occupancyPath, 15, 10);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    firstStore.close();
+    secondStore.close();
+    Files.deleteIfExists(occupancyPath);
+  }
+
+  @Test
+  void compareAndSetWord() {
+    assertEquals(15, firstStore.size());
+    assertTrue(firstStore.isShared());
+    assertTrue(firstStore.compareAndSetWord(3, 0L, 5L));
+    assertEquals(5L, secondStore.getWord(3));
+    assertFalse(secondStore.compareAndSetWord(3, 0L, 7L));
+    assertEquals(0L, secondStore.getWord(4));
+  }
+
+  @Test
+  void theatersShareOccupancy() throws NoAccessibleRowsException {
+    Theater first = new Theater("Roxy", 15, 10, List.of(6, 10), firstStore);
+    Theater second = new Theater("Roxy", 15, 10, List.of(6, 10), secondStore);
+    ReservationService firstService = new ReservationService(first);
+    ReservationService secondService = new ReservationService(second);
+
+    ReservationResult amy = firstService.reserve(first, 10, "Amy", true);
+    assertEquals(6, amy.getRowNumber());
+    assertTrue(second.getRows().get(5).get(0).isReserved());
+    assertNull(second.getRows().get(5).get(0).getReservedFor());
+    assertEquals(" 6 X X X X X X X X X X ", second.toString().split("\n")[5]);
+
+    ReservationResult ben = secondService.reserve(second, 10, "Ben", true);
+    assertEquals(10, ben.getRowNumber());
+    assertFalse(firstService.reserve(first, 1, "Cleo", true).isReserved());
+
+    secondService.release(ben);
+    assertEquals(10, firstService.reserve(first, 1, "Cleo", true).getRowNumber());
+  }
+
+  @Test
+  void releasesAreCountedAcrossMappings() throws NoAccessibleRowsException {
+    Theater first = new Theater("Roxy", 15, 10, List.of(6, 10), firstStore);
+    Theater second = new Theater("Roxy", 15, 10, List.of(6, 10), secondStore);
+    ReservationService firstService = new ReservationService(first);
+    for (int i = 0; i < 13; i++) {
+      assertTrue(firstService.reserve(first, 10, "Party" + i, false).isReserved());
+    }
+    assertEquals(0, secondStore.getReleaseCount());
+    // the second theater's index still thinks every row is free, failed claims correct it
+    assertFalse(new ReservationService(second).reserve(second, 1, "Late", false).isReserved());
+    assertNull(second.findBestRow(1, false));
+
+    first.getRows().get(0).releaseSeats(3, 2);
+    assertEquals(1, secondStore.getReleaseCount());
+    assertEquals(1, second.findBestRow(2, false).getRowNumber());
+    assertNull(second.findBestRow(3, false));
+  }
+
+  @Test
+  void reopenKeepsOccupancy() throws IOException, NoAccessibleRowsException {
+    Theater first = new Theater("Roxy", 15, 10, List.of(6, 10), firstStore);
+    new ReservationService(first).reserve(first, 4, "Amy", false);
+    firstStore.close();
+
+    firstStore = MappedOccupancyStore.open(occupancyPath, 15, 10);
+    Theater reopened = new Theater("Roxy", 15, 10, List.of(6, 10), firstStore);
+    assertTrue(reopened.getRows().get(6).get(3).isReserved());
+    assertFalse(reopened.getRows().get(6).get(4).isReserved());
+    assertEquals(8, reopened.findBestRow(10, false).getRowNumber());
+  }
+
+  @Test
+  void concurrentOpensOfANewFileAgree() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      for (int attempt = 0; attempt < 50; attempt++) {
+        Path path = occupancyPath.resolveSibling(occupancyPath.getFileName() + "." + attempt);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Callable<MappedOccupancyStore> open = () -> {
+          startSignal.await();
+          return MappedOccupancyStore.open(path, 15, 10);
+        };
+        Future<MappedOccupancyStore> first = executor.submit(open);
+        Future<MappedOccupancyStore> second = executor.submit(open);
+        startSignal.countDown();
+        try (MappedOccupancyStore firstOpened = first.get();
+            MappedOccupancyStore secondOpened = second.get()) {
+          assertTrue(firstOpened.compareAndSetWord(0, 0, 1));
+          assertEquals(1, secondOpened.getWord(0));
+        } finally {
+          Files.deleteIfExists(path);
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void openWithOtherLayout() {
+    assertThrows(IllegalArgumentException.class,
+        () -> MappedOccupancyStore.open(occupancyPath, 12, 10));
+  }
+}
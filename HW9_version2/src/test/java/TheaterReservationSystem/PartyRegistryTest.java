@@ -0,0 +1,78 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PartyRegistryTest {
+  private PartyRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new PartyRegistry();
+  }
+
+  @Test
+  void register() {
+    int john = registry.register("John");
+    assertNotEquals(PartyRegistry.NO_PARTY, john);
+    assertEquals(john, registry.register("John"));
+    assertNotEquals(john, registry.register("Alice"));
+    assertEquals(PartyRegistry.NO_PARTY, registry.register(null));
+    assertEquals("John", registry.getName(john));
+    assertNull(registry.getName(PartyRegistry.NO_PARTY));
+  }
+
+  @Test
+  void registerManyParties() {
+    for (int i = 0; i < 100; i++) {
+      assertEquals("Party" + i, registry.getName(registry.register("Party" + i)));
+    }
+  }
+
+  @Test
+  void findId() {
+    assertEquals(PartyRegistry.NO_PARTY, registry.findId("John"));
+    int john = registry.register("John");
+    assertEquals(john, registry.findId("John"));
+    assertEquals(PartyRegistry.NO_PARTY, registry.findId(null));
+  }
+
+  @Test
+  void seatKeys() {
+    int john = registry.register("John");
+    for (int i = 0; i < 20; i++) {
+      registry.addSeat(john, PartyRegistry.seatKey(3, i));
+    }
+    registry.removeSeat(john, PartyRegistry.seatKey(3, 0));
+    int[] seatKeys = registry.getSeatKeys(john);
+    Arrays.sort(seatKeys);
+    assertEquals(19, seatKeys.length);
+    assertEquals(PartyRegistry.seatKey(3, 1), seatKeys[0]);
+    assertEquals(0, registry.getSeatKeys(PartyRegistry.NO_PARTY).length);
+  }
+
+  @Test
+  void partyIsForgottenWithItsLastSeat() {
+    int john = registry.register("John");
+    registry.addSeat(john, PartyRegistry.seatKey(3, 0));
+    registry.addSeat(john, PartyRegistry.seatKey(3, 1));
+    registry.removeSeat(john, PartyRegistry.seatKey(3, 0));
+    assertEquals(john, registry.findId("John"));
+
+    registry.removeSeat(john, PartyRegistry.seatKey(3, 1));
+    assertEquals(PartyRegistry.NO_PARTY, registry.findId("John"));
+    assertNull(registry.getName(john));
+    assertFalse(registry.addSeat(john, PartyRegistry.seatKey(3, 2)));
+    assertNotEquals(john, registry.register("John"));
+  }
+
+  @Test
+  void seatKey() {
+    int seatKey = PartyRegistry.seatKey(15, 25);
+    assertEquals(15, PartyRegistry.rowNumberOf(seatKey));
+    assertEquals(25, PartyRegistry.seatIndexOf(seatKey));
+  }
+}
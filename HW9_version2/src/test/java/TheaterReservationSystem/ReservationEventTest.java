@@ -0,0 +1,68 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReservationEventTest {
+  private Theater theater;
+  private ReservationService service;
+
+  @BeforeEach
+  void setUp() throws NoAccessibleRowsException {
+    theater = new Theater("Roxy", 3, 4, Arrays.asList(1));
+    service = new ReservationService(theater);
+  }
+
+  @Test
+  void recordsReservationsAndRenders() throws IOException, ParseException {
+    Path file = Files.createTempFile("reservations", ".jfr");
+    try (Recording recording = new Recording(Configuration.create(Paths.get("src/main/resources/reservations.jfc")))) {
+      recording.start();
+      service.reserve(theater, 3, "John", false);
+      service.reserve(theater, 9, "Jane", false);
+      theater.toString();
+      theater.toString();
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Files.delete(file);
+    List<RecordedEvent> reservations = events.stream()
+        .filter(e -> e.getEventType().getName().equals("TheaterReservationSystem.Reservation"))
+        .collect(Collectors.toList());
+    assertEquals(2, reservations.size());
+    RecordedEvent reserved = reservations.get(0);
+    assertEquals("Roxy", reserved.getString("theater"));
+    assertEquals(3, reserved.getInt("partySize"));
+    assertFalse(reserved.getBoolean("wheelchairAccessible"));
+    assertEquals(2, reserved.getInt("row"));
+    assertEquals(1, reserved.getInt("rowsInspected"));
+    assertEquals("RESERVED", reserved.getString("outcome"));
+    assertNull(reserved.getStackTrace());
+    assertEquals("TOO_MANY_SEATS_FOR_A_ROW", reservations.get(1).getString("outcome"));
+
+    List<RecordedEvent> renders = events.stream()
+        .filter(e -> e.getEventType().getName().equals("TheaterReservationSystem.SeatMapRender"))
+        .collect(Collectors.toList());
+    assertEquals(2, renders.size());
+    assertFalse(renders.get(0).getBoolean("cached"));
+    assertTrue(renders.get(1).getBoolean("cached"));
+    assertEquals(3, renders.get(1).getInt("rows"));
+    assertEquals(theater.toString().length(), renders.get(1).getInt("bytes"));
+  }
+}
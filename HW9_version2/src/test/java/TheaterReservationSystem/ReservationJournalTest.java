@@ -0,0 +1,131 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReservationJournalTest {
+  private Path journalPath;
+  private Theater theater;
+
+  @BeforeEach
+  void setUp() throws IOException, NoAccessibleRowsException {
+    journalPath = Files.createTempFile("reservations", ".journal");
+    theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(journalPath);
+  }
+
+  @Test
+  void replayRestoresBookings() throws IOException, NoAccessibleRowsException {
+    try (ReservationJournal journal = ReservationJournal.open(journalPath)) {
+      ReservationService service = new ReservationService(theater, journal);
+      service.reserve(theater, 4, "Amy", false);
+      ReservationResult cancelled = service.reserve(theater, 3, "Ben", false);
+      service.reserve(theater, 2, "Zoë", true);
+      service.release(cancelled);
+      service.reserve(theater, 2, "Cleo", false);
+    }
+
+    Theater restored = new Theater("Roxy", 15, 10, List.of(6, 10));
+    assertEquals(5, ReservationJournal.replay(journalPath, restored));
+    assertEquals(theater, restored);
+    assertEquals("Zoë", restored.getRows().get(5).get(1).getReservedFor());
+  }
+
+  @Test
+  void reopenAppendsToTheEnd() throws IOException, NoAccessibleRowsException {
+    try (ReservationJournal journal = ReservationJournal.open(journalPath)) {
+      new ReservationService(theater, journal).reserve(theater, 4, "Amy", false);
+    }
+    try (ReservationJournal journal = ReservationJournal.open(journalPath)) {
+      new ReservationService(theater, journal).reserve(theater, 4, "Ben", false);
+    }
+
+    Theater restored = new Theater("Roxy", 15, 10, List.of(6, 10));
+    assertEquals(2, ReservationJournal.replay(journalPath, restored));
+    assertEquals(theater, restored);
+  }
+
+  @Test
+  void replayIgnoresTornRecord() throws IOException, NoAccessibleRowsException {
+    try (ReservationJournal journal = ReservationJournal.open(journalPath)) {
+      new ReservationService(theater, journal).reserve(theater, 4, "Amy", false);
+    }
+    try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.APPEND)) {
+      channel.write(ByteBuffer.wrap(new byte[] {1, 0, 0, 0, 7, 0}));
+    }
+
+    Theater restored = new Theater("Roxy", 15, 10, List.of(6, 10));
+    assertEquals(1, ReservationJournal.replay(journalPath, restored));
+    assertEquals(theater, restored);
+  }
+
+  @Test
+  void unrecordedReservationIsGivenBackAndCounted() throws IOException {
+    ReservationJournal journal = ReservationJournal.open(journalPath);
+    ReservationService service = new ReservationService(theater, journal);
+    journal.close();
+
+    ReservationResult result = service.reserve(theater, 4, "Amy", false);
+    assertEquals(ReservationResult.Status.NOT_RECORDED, result.getStatus());
+    assertEquals("Sorry, we could not record your reservation. Please try again.", result.getMessage());
+    assertTrue(theater.findSeats("Amy").isEmpty());
+    assertEquals(1, service.getMetrics().getAttempts());
+    assertEquals(0, service.getMetrics().getReserved());
+    assertEquals(1, service.getMetrics().getRejectedNotRecorded());
+    assertEquals(1, service.getMetrics().snapshot().getRejectedNotRecorded());
+    assertEquals(4, service.getMetrics().getSeatsRolledBack());
+  }
+
+  @Test
+  void unrecordedReleaseFails() throws IOException {
+    ReservationJournal journal = ReservationJournal.open(journalPath);
+    ReservationService service = new ReservationService(theater, journal);
+    ReservationResult result = service.reserve(theater, 4, "Amy", false);
+    service.reserve(theater, 2, "Ben", false);
+    journal.close();
+
+    assertThrows(UncheckedIOException.class, () -> service.release(result));
+    assertThrows(UncheckedIOException.class, () -> service.cancel(theater, "Ben"));
+  }
+
+  @Test
+  void concurrentBookingsAreAllRecorded() throws IOException, InterruptedException,
+      NoAccessibleRowsException {
+    try (ReservationJournal journal = ReservationJournal.open(journalPath)) {
+      ReservationService service = new ReservationService(theater, journal);
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        String name = "Party" + t;
+        threads.add(new Thread(() -> {
+          for (int i = 0; i < 20; i++) {
+            service.reserve(theater, 1, name, i % 5 == 0);
+          }
+        }));
+      }
+      threads.forEach(Thread::start);
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    }
+
+    Theater restored = new Theater("Roxy", 15, 10, List.of(6, 10));
+    assertEquals(80, ReservationJournal.replay(journalPath, restored));
+    assertEquals(theater, restored);
+  }
+}
@@ -0,0 +1,65 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReservationMetricsTest {
+  private Theater theater;
+  private ReservationService service;
+
+  @BeforeEach
+  void setUp() throws NoAccessibleRowsException {
+    theater = new Theater("Metrics", 3, 4, Arrays.asList(1));
+    service = new ReservationService(theater);
+  }
+
+  @Test
+  void countsOutcomes() {
+    service.reserve(theater, 4, "A", false);
+    service.reserve(theater, 0, "B", false);
+    service.reserve(theater, 5, "C", false);
+    service.reserve(theater, 4, "D", false);
+    service.reserve(theater, 1, "E", false);
+
+    MetricsSnapshot snapshot = service.getMetrics().snapshot();
+    assertEquals(5, snapshot.getAttempts());
+    assertEquals(2, snapshot.getReserved());
+    assertEquals(1, snapshot.getRejectedInvalidNumberOfSeats());
+    assertEquals(1, snapshot.getRejectedTooManySeatsForARow());
+    assertEquals(1, snapshot.getRejectedNoSeatsTogether());
+    assertEquals(8, snapshot.getSeatsClaimed());
+    assertEquals(2, snapshot.getRowsInspected());
+    assertEquals(0, snapshot.getClaimConflicts());
+    assertTrue(snapshot.getReserveLatencyMax() >= snapshot.getReserveLatencyP50());
+  }
+
+  @Test
+  void countsReleases() {
+    ReservationResult result = service.reserve(theater, 3, "A", false);
+    service.release(result);
+    service.reserve(theater, 2, "B", false);
+    assertEquals(2, service.cancel(theater, "B"));
+
+    MetricsSnapshot snapshot = service.getMetrics().snapshot();
+    assertEquals(5, snapshot.getSeatsClaimed());
+    assertEquals(5, snapshot.getSeatsReleased());
+  }
+
+  @Test
+  void registersOverJmx() throws Exception {
+    service.reserve(theater, 2, "A", false);
+    ObjectName name = service.getMetrics().register("TheaterReservationSystem:type=ReservationMetrics,name=test");
+    try {
+      assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Reserved"));
+      assertThrows(IllegalArgumentException.class, () -> service.getMetrics()
+          .register("TheaterReservationSystem:type=ReservationMetrics,name=test"));
+    } finally {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package TheaterReservationSystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationResultTest {
+
+    private Theater theater;
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() throws NoAccessibleRowsException {
+        theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+        reservationService = new ReservationService(theater);
+    }
+
+    @Test
+    void reserved() {
+        ReservationResult result = reservationService.reserve(theater, 3, "Amy", false);
+        assertTrue(result.isReserved());
+        assertEquals(ReservationResult.Status.RESERVED, result.getStatus());
+        assertEquals(7, result.getRowNumber());
+        assertEquals(List.of("A", "B", "C"), result.getSeatNames());
+        assertEquals("I’ve reserved 3 seats for you at the Roxy in row 7, Amy.", result.getMessage());
+
+        ReservationResult second = reservationService.reserve(theater, 2, "Ben", false);
+        assertEquals(List.of("D", "E"), second.getSeatNames());
+    }
+
+    @Test
+    void rejected() {
+        ReservationResult invalid = reservationService.reserve(theater, -1, "Amy", false);
+        assertEquals(ReservationResult.Status.INVALID_NUMBER_OF_SEATS, invalid.getStatus());
+        assertEquals("Invalid number of seats.", invalid.getMessage());
+
+        ReservationResult tooMany = reservationService.reserve(theater, 11, "Amy", false);
+        assertEquals(ReservationResult.Status.TOO_MANY_SEATS_FOR_A_ROW, tooMany.getStatus());
+        assertEquals("Sorry, we can't reserve more than 10 seats in a single row.", tooMany.getMessage());
+
+        reservationService.reserve(theater, 10, "Amy", true);
+        reservationService.reserve(theater, 10, "Ben", true);
+        ReservationResult full = reservationService.reserve(theater, 1, "Cleo", true);
+        assertFalse(full.isReserved());
+        assertEquals(0, full.getRowNumber());
+        assertTrue(full.getSeatNames().isEmpty());
+        assertEquals("Sorry, we don’t have that many seats together for you.", full.getMessage());
+    }
+
+    @Test
+    void testEquals() {
+        ReservationRequest request = new ReservationRequest(11, "Amy", false);
+        ReservationResult result = reservationService.reserve(theater, request);
+        assertEquals(result, reservationService.reserve(theater, request));
+        assertEquals(result.hashCode(), reservationService.reserve(theater, request).hashCode());
+        assertNotEquals(result, reservationService.reserve(theater, 2, "Amy", false));
+        assertNotEquals(result, null);
+    }
+
+    @Test
+    void testToString() {
+        ReservationResult result = reservationService.reserve(theater, 2, "Amy", false);
+        assertEquals("ReservationResult{status=RESERVED, request=ReservationRequest{numSeats=2, "
+                + "name='Amy', wheelchairAccessible=false}, rowNumber=7, seatNames=[A, B]}", result.toString());
+    }
+}
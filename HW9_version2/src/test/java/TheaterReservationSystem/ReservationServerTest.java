@@ -0,0 +1,125 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReservationServerTest {
+  private Theater theater;
+  private ReservationServer server;
+  private InetSocketAddress address;
+
+  @BeforeEach
+  void setUp() throws NoAccessibleRowsException, IOException {
+    theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    server = ReservationServer.open(theater, new ReservationService(theater),
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    server.start();
+    address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.close();
+  }
+
+  @Test
+  void reserveOverTheNetwork() throws IOException {
+    try (ReservationClient client = ReservationClient.connect(address)) {
+      assertEquals("What would you like to do?\n", client.readAnswer());
+      assertEquals("What’s your name?\n", client.send("reserve 2"));
+      assertEquals("Do you need wheelchair accessible seats? (yes/no)\n", client.send("Anna"));
+      assertEquals("I’ve reserved 2 seats for you at the Roxy in row 7, Anna.\n"
+          + "What would you like to do?\n", client.send("no"));
+      assertTrue(client.send("show").startsWith(" 1 _ _ _"));
+      assertEquals("Thank you! Have a nice day!\n", client.send("done"));
+      assertEquals("", client.readAnswer());
+    }
+  }
+
+  @Test
+  void closeGivesUpHeldSeats() throws IOException {
+    try (ReservationClient client = ReservationClient.connect(address)) {
+      client.readAnswer();
+      assertEquals("What’s your name?\n", client.send("reserve 2"));
+      assertEquals(8, theater.getRows().get(6).getLargestFreeRun());
+
+      server.close();
+      assertEquals("", client.readAnswer());
+      assertEquals(10, theater.getRows().get(6).getLargestFreeRun());
+    }
+  }
+
+  @Test
+  void failingSessionIsClosedAlone() throws IOException, NoAccessibleRowsException {
+    Theater failing = new Theater("Roxy", 15, 10, List.of(6, 10));
+    ReservationService service = new ReservationService(failing) {
+      @Override
+      public SeatHold hold(Theater theater, int numSeats, boolean wheelchairAccessible, long timeout,
+          TimeUnit unit) {
+        if (numSeats == 3) {
+          throw new IllegalStateException("broken");
+        }
+        return super.hold(theater, numSeats, wheelchairAccessible, timeout, unit);
+      }
+    };
+    try (ReservationServer failingServer = ReservationServer.open(failing, service,
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+      failingServer.start();
+      InetSocketAddress failingAddress =
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), failingServer.getPort());
+      try (ReservationClient broken = ReservationClient.connect(failingAddress);
+          ReservationClient other = ReservationClient.connect(failingAddress)) {
+        broken.readAnswer();
+        other.readAnswer();
+        assertEquals("", broken.send("reserve 3"));
+        assertEquals("What’s your name?\n", other.send("reserve 2"));
+      }
+    }
+  }
+
+  @Test
+  void concurrentSessions() throws Exception {
+    // every seat outside the two wheelchair rows
+    int numClients = 130;
+    List<ReservationClient> clients = new ArrayList<>();
+    for (int i = 0; i < numClients; i++) {
+      ReservationClient client = ReservationClient.connect(address);
+      client.readAnswer();
+      clients.add(client);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    List<Future<String>> answers = new ArrayList<>();
+    for (int i = 0; i < numClients; i++) {
+      ReservationClient client = clients.get(i);
+      String name = "Party" + i;
+      answers.add(executor.submit(() -> {
+        client.send("reserve 1");
+        client.send(name);
+        return client.send("no");
+      }));
+    }
+    executor.shutdown();
+    for (Future<String> answer : answers) {
+      assertTrue(answer.get().startsWith("I’ve reserved 1 seats"), answer.get());
+    }
+    for (ReservationClient client : clients) {
+      client.close();
+    }
+    for (Row row : theater.getRows()) {
+      assertEquals(row.isWheelchairAccessible() ? 10 : 0, row.getLargestFreeRun());
+    }
+    assertEquals(1, theater.findSeats("Party42").size());
+  }
+}
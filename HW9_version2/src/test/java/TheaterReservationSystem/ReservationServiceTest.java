@@ -8,6 +8,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,6 +41,93 @@ public class ReservationServiceTest {
 
 
 
+    @Test
+    public void testReserveSeatsNeedsAdjacentSeats() {
+        ReservationService reservationService = new ReservationService(theater);
+        for (Row row : theater.getRows()) {
+            if (!row.isWheelchairAccessible()) {
+                for (int i = 0; i < row.size(); i += 2) {
+                    row.get(i).reserve("Taken");
+                }
+            }
+        }
+        reservationService.reserveSeats(theater, 2, "John", false);
+
+        assertEquals("Sorry, we don’t have that many seats together for you.", capturedOutput.toString().trim());
+    }
+
+    @Test
+    public void testReserveSeatsConcurrently() throws InterruptedException {
+        ReservationService reservationService = new ReservationService(theater);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String name = "Party" + t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 40; i++) {
+                    reservationService.reserveSeats(theater, 2, name + "-" + i, false);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (Row row : theater.getRows()) {
+            if (!row.isWheelchairAccessible()) {
+                assertEquals(0, row.getLargestFreeRun());
+                for (int i = 0; i < row.size(); i += 2) {
+                    assertEquals(row.get(i).getReservedFor(), row.get(i + 1).getReservedFor());
+                }
+            }
+        }
+        long reserved = capturedOutput.toString().lines()
+                .filter(line -> line.startsWith("I’ve reserved"))
+                .count();
+        assertEquals(65, reserved);
+    }
+
+    @Test
+    public void testReserveSeatsBatch() {
+        ReservationService reservationService = new ReservationService(theater);
+        List<ReservationRequest> requests = List.of(
+                new ReservationRequest(2, "John", false),
+                new ReservationRequest(0, "Alice", false),
+                new ReservationRequest(12, "Bob", false),
+                new ReservationRequest(3, "Amy", true));
+
+        List<ReservationResult> results = reservationService.reserveSeats(theater, requests, false);
+
+        assertEquals(4, results.size());
+        assertEquals(ReservationResult.Status.RESERVED, results.get(0).getStatus());
+        assertEquals(7, results.get(0).getRowNumber());
+        assertEquals(List.of("A", "B"), results.get(0).getSeatNames());
+        assertEquals(ReservationResult.Status.INVALID_NUMBER_OF_SEATS, results.get(1).getStatus());
+        assertEquals(ReservationResult.Status.TOO_MANY_SEATS_FOR_A_ROW, results.get(2).getStatus());
+        assertEquals(6, results.get(3).getRowNumber());
+        assertEquals(requests.get(3), results.get(3).getRequest());
+        assertEquals("", capturedOutput.toString());
+    }
+
+    @Test
+    public void testReserveSeatsBatchLargestFirst() throws NoAccessibleRowsException {
+        Theater smallTheater = new Theater("Small", 2, 6, List.of(1));
+        ReservationService reservationService = new ReservationService(smallTheater);
+        List<ReservationRequest> requests = List.of(
+                new ReservationRequest(2, "John", false),
+                new ReservationRequest(6, "Alice", false),
+                new ReservationRequest(4, "Bob", false));
+
+        List<ReservationResult> inOrder = reservationService.reserveSeats(smallTheater, requests, false);
+        assertFalse(inOrder.get(1).isReserved());
+
+        smallTheater.getRows().get(1).releaseSeats(0, 6);
+        List<ReservationResult> largestFirst = reservationService.reserveSeats(smallTheater, requests, true);
+        assertTrue(largestFirst.get(1).isReserved());
+        assertFalse(largestFirst.get(0).isReserved());
+        assertFalse(largestFirst.get(2).isReserved());
+    }
+
     @Test
     public void testReserveSeatsInvalidNumSeats() {
         ReservationService reservationService = new ReservationService(theater);
@@ -84,7 +172,156 @@ public class ReservationServiceTest {
 
     @Test
     public void testFindBestRow() {
-        // Implement test cases to cover different scenarios for findBestRow method
+        ReservationService reservationService = new ReservationService(theater);
+        reservationService.reserveSeats(theater, 10, "John", false);
+        reservationService.reserveSeats(theater, 10, "Alice", false);
+        reservationService.reserveSeats(theater, 10, "Bob", false);
+        reservationService.reserveSeats(theater, 4, "Amy", true);
+
+        String[] lines = capturedOutput.toString().trim().split("\\R");
+        assertEquals("I’ve reserved 10 seats for you at the Roxy in row 7, John.", lines[0].trim());
+        assertEquals("I’ve reserved 10 seats for you at the Roxy in row 8, Alice.", lines[1].trim());
+        assertEquals("I’ve reserved 10 seats for you at the Roxy in row 5, Bob.", lines[2].trim());
+        assertEquals("I’ve reserved 4 seats for you at the Roxy in row 6, Amy.", lines[3].trim());
+    }
+
+    @Test
+    public void testCancel() {
+        ReservationService reservationService = new ReservationService(theater);
+        reservationService.reserve(theater, 3, "John", false);
+        reservationService.reserve(theater, 2, "Alice", false);
+        theater.getRows().get(0).get(4).reserve("John");
+
+        assertEquals(4, reservationService.cancel(theater, "John"));
+        assertTrue(theater.findSeats("John").isEmpty());
+        assertEquals(2, theater.findSeats("Alice").size());
+        assertFalse(theater.getRows().get(0).get(4).isReserved());
+        assertEquals(8, theater.getRows().get(6).stream().filter(seat -> !seat.isReserved()).count());
+        assertEquals(0, reservationService.cancel(theater, "Nobody"));
+    }
+
+    @Test
+    public void testPartiesAreRegisteredOnlyWhileTheyHoldSeats() {
+        ReservationService reservationService = new ReservationService(theater);
+        Row firstRow = theater.getRows().get(0);
+        firstRow.reserveSeats(0, 10, "Amy");
+        assertEquals(Row.NO_SEATS_FOUND, firstRow.claimContinuousSeats(1, "Tom"));
+        assertEquals(PartyRegistry.NO_PARTY, theater.getParties().findId("Tom"));
+
+        reservationService.reserve(theater, 3, "John", false);
+        assertNotEquals(PartyRegistry.NO_PARTY, theater.getParties().findId("John"));
+        reservationService.cancel(theater, "John");
+        assertEquals(PartyRegistry.NO_PARTY, theater.getParties().findId("John"));
+    }
+
+    @Test
+    public void testFindSeats() {
+        ReservationService reservationService = new ReservationService(theater);
+        ReservationResult result = reservationService.reserve(theater, 3, "John", false);
+
+        List<Seat> seats = theater.findSeats("John");
+        assertEquals(3, seats.size());
+        for (Seat seat : seats) {
+            assertEquals("John", seat.getReservedFor());
+            assertTrue(result.getSeatNames().contains(seat.getSeatName()));
+        }
+        reservationService.release(result);
+        assertTrue(theater.findSeats("John").isEmpty());
+    }
+
+    @Test
+    public void testReleaseTwiceKeepsTheNextPartysSeats() {
+        ReservationService reservationService = new ReservationService(theater);
+        ReservationResult john = reservationService.reserve(theater, 3, "John", false);
+        reservationService.release(john);
+        ReservationResult bob = reservationService.reserve(theater, 3, "Bob", false);
+        assertEquals(john.getSeatNames(), bob.getSeatNames());
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.release(john));
+        assertEquals(3, theater.findSeats("Bob").size());
+        assertEquals(3, reservationService.getMetrics().getSeatsReleased());
+    }
+
+    @Test
+    public void testReleaseAfterCancel() {
+        ReservationService reservationService = new ReservationService(theater);
+        ReservationResult john = reservationService.reserve(theater, 3, "John", false);
+        assertEquals(3, reservationService.cancel(theater, "John"));
+        reservationService.reserve(theater, 2, "Bob", false);
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.release(john));
+        assertEquals(2, theater.findSeats("Bob").size());
+    }
+
+    @Test
+    public void testHoldAndConfirm() {
+        ReservationService service = new ReservationService(theater);
+        SeatHold hold = service.hold(theater, 10, false, 1, TimeUnit.MINUTES);
+        assertEquals(7, hold.getRowNumber());
+        assertTrue(hold.isActive());
+        assertTrue(theater.getRows().get(6).get(0).isReserved());
+        assertNull(theater.getRows().get(6).get(0).getReservedFor());
+        assertEquals(8, service.reserve(theater, 10, "Ben", false).getRowNumber());
+
+        ReservationResult result = service.confirm(hold, "Anna");
+        assertEquals("I’ve reserved 10 seats for you at the Roxy in row 7, Anna.", result.getMessage());
+        assertEquals("Anna", theater.getRows().get(6).get(9).getReservedFor());
+        assertFalse(hold.isActive());
+        assertThrows(IllegalArgumentException.class, () -> service.confirm(hold, "Anna"));
+        assertNull(service.hold(theater, 11, false, 1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void testHoldReleaseAndExpiry() throws InterruptedException {
+        ReservationService service = new ReservationService(theater);
+        SeatHold released = service.hold(theater, 4, false, 1, TimeUnit.MINUTES);
+        service.release(released);
+        assertFalse(theater.getRows().get(6).get(0).isReserved());
+
+        SeatHold expiring = service.hold(theater, 4, false, 0, TimeUnit.SECONDS);
+        SeatHold kept = service.hold(theater, 2, false, 1, TimeUnit.MINUTES);
+        Thread.sleep(250);
+        assertEquals(1, service.expireHolds());
+        assertTrue(expiring.isExpired());
+        assertTrue(kept.isActive());
+        assertFalse(theater.getRows().get(6).get(0).isReserved());
+        assertTrue(theater.getRows().get(6).get(4).isReserved());
+
+        // a party whose hold ran out is placed anew
+        ReservationResult late = service.confirm(expiring, "Cleo");
+        assertTrue(late.isReserved());
+        assertEquals("Cleo", theater.getRows().get(6).get(0).getReservedFor());
+    }
+
+    @Test
+    public void testPlacementStrategy() throws NoAccessibleRowsException {
+        assertPlacementAfterCancellations(StandardPlacement.FIRST_FIT, 0, false);
+        assertPlacementAfterCancellations(StandardPlacement.BEST_FIT, 7, true);
+        assertThrows(IllegalArgumentException.class, () -> new ReservationService(theater).setPlacementStrategy(null));
+    }
+
+    /**
+     * Leaves free runs of 5 and 3 seats in the only standard row, then books a party of 3 and one of 5.
+     * Only a strategy putting the 3 into the 3-seat gap can seat both.
+     */
+    private void assertPlacementAfterCancellations(PlacementStrategy strategy, int expectedFirstSeat,
+                                                   boolean expectFiveSeated) throws NoAccessibleRowsException {
+        List<Integer> wheelchairRows = new ArrayList<>();
+        wheelchairRows.add(1);
+        Theater small = new Theater("Small", 2, 10, wheelchairRows);
+        ReservationService service = new ReservationService(small);
+        service.setPlacementStrategy(strategy);
+        assertEquals(strategy, service.getPlacementStrategy());
+        service.reserve(small, 5, "Anna", false);
+        service.reserve(small, 2, "Ben", false);
+        service.reserve(small, 3, "Cleo", false);
+        service.cancel(small, "Anna");
+        service.cancel(small, "Cleo");
+
+        ReservationResult three = service.reserve(small, 3, "Dan", false);
+        assertTrue(three.isReserved());
+        assertEquals(expectedFirstSeat, three.getFirstSeat());
+        assertEquals(expectFiveSeated, service.reserve(small, 5, "Eve", false).isReserved());
     }
 
     @Test
@@ -0,0 +1,114 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReservationSessionTest {
+  private Theater theater;
+  private ReservationSession session;
+
+  @BeforeEach
+  void setUp() throws NoAccessibleRowsException {
+    theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    session = new ReservationSession(theater, new ReservationService(theater));
+  }
+
+  private String drain() {
+    StringBuilder text = new StringBuilder();
+    for (ByteBuffer buffer : session.getOutput()) {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      text.append(new String(bytes, StandardCharsets.UTF_8));
+    }
+    session.getOutput().clear();
+    return text.toString();
+  }
+
+  @Test
+  void greeting() {
+    assertEquals("What would you like to do?\n", drain());
+  }
+
+  @Test
+  void reserve() {
+    drain();
+    session.handleLine("reserve 3");
+    assertEquals("What’s your name?\n", drain());
+    session.handleLine(" Anna ");
+    assertEquals("Do you need wheelchair accessible seats? (yes/no)\n", drain());
+    session.handleLine("maybe");
+    assertEquals("Invalid input. Please answer with 'yes' or 'no'.\n"
+        + "Do you need wheelchair accessible seats? (yes/no)\n", drain());
+    session.handleLine("NO");
+    assertEquals("I’ve reserved 3 seats for you at the Roxy in row 7, Anna.\n"
+        + "What would you like to do?\n", drain());
+    assertEquals("Anna", theater.getRows().get(6).get(0).getReservedFor());
+  }
+
+  @Test
+  void seatsAreHeldDuringTheDialog() {
+    ReservationService other = new ReservationService(theater);
+    drain();
+    session.handleLine("reserve 10");
+    assertTrue(theater.getRows().get(6).get(9).isReserved());
+    assertNull(theater.getRows().get(6).get(9).getReservedFor());
+    // someone else booking meanwhile gets the next row
+    assertEquals(8, other.reserve(theater, 10, "Ben", false).getRowNumber());
+    session.handleLine("Anna");
+    session.handleLine("no");
+    drain();
+    assertEquals("Anna", theater.getRows().get(6).get(9).getReservedFor());
+  }
+
+  @Test
+  void closeReleasesHeldSeats() {
+    drain();
+    session.handleLine("reserve 4");
+    session.handleLine("Anna");
+    session.close();
+    assertFalse(theater.getRows().get(6).get(0).isReserved());
+  }
+
+  @Test
+  void invalidReserve() {
+    drain();
+    session.handleLine("reserve");
+    assertEquals("Please enter a valid seat number to reserve\nWhat would you like to do?\n", drain());
+    session.handleLine("reserve 12");
+    assertEquals("Sorry, we don’t have that many seats together for you.\nWhat would you like to do?\n",
+        drain());
+  }
+
+  @Test
+  void soldOutIsTurnedAwayBeforeTheName() {
+    for (Row row : theater.getRows()) {
+      row.reserveSeats(0, row.isWheelchairAccessible() ? 10 : 8, "Taken");
+    }
+    drain();
+    session.handleLine("reserve 3");
+    assertEquals("Sorry, we don’t have that many seats together for you.\nWhat would you like to do?\n",
+        drain());
+    session.handleLine("reserve 2");
+    assertEquals("What’s your name?\n", drain());
+  }
+
+  @Test
+  void showHelpAndDone() {
+    drain();
+    session.handleLine("show");
+    assertEquals(theater.toString() + "\nWhat would you like to do?\n", drain());
+    session.handleLine("help");
+    assertTrue(drain().startsWith("Theater Roxy has total 15 rows"));
+    session.handleLine("xx");
+    assertTrue(drain().startsWith("Please enter a valid command."));
+    assertFalse(session.isDone());
+    session.handleLine("done");
+    assertEquals("Thank you! Have a nice day!\n", drain());
+    assertTrue(session.isDone());
+  }
+}
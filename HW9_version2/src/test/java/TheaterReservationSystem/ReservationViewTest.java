@@ -69,6 +69,7 @@ class ReservationViewTest {
         //These assertions are checking whether the mocked input led the program to print out certain expected messages.
         assertTrue(outContent.toString().contains("What’s your name?"));
         assertTrue(outContent.toString().contains("Do you need wheelchair accessible seats?"));
+        assertTrue(outContent.toString().contains("I’ve reserved 5 seats for you at the Roxy in row 7, Amy."));
     }
 
     @Test
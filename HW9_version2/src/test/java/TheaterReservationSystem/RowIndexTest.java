@@ -0,0 +1,69 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RowIndexTest {
+  private List<Row> rows;
+  private RowIndex testIndex;
+
+  @BeforeEach
+  void setUp() {
+    rows = new ArrayList<>();
+    for (int i = 1; i <= 7; i++) {
+      rows.add(new Row(i, 5, false));
+    }
+    testIndex = new RowIndex(rows, 4);
+  }
+
+  @Test
+  void findBestRowPrefersCenter() {
+    assertEquals(4, testIndex.findBestRow(5).getRowNumber());
+    assertEquals(5, testIndex.getLargestFreeRun());
+  }
+
+  @Test
+  void findBestRowAfterUpdate() {
+    rows.get(3).reserveSeats(0, 3, "Anna");
+    testIndex.update(rows.get(3));
+    assertEquals(4, testIndex.findBestRow(2).getRowNumber());
+    assertEquals(3, testIndex.findBestRow(3).getRowNumber());
+
+    rows.get(2).reserveSeats(1, 1, "Ben");
+    testIndex.update(rows.get(2));
+    assertEquals(5, testIndex.findBestRow(4).getRowNumber());
+  }
+
+  @Test
+  void findBestRowWhenFull() {
+    for (Row row : rows) {
+      row.reserveSeats(0, 5, "Anna");
+      testIndex.update(row);
+    }
+    assertNull(testIndex.findBestRow(1));
+    assertEquals(0, testIndex.getLargestFreeRun());
+
+    rows.get(6).releaseSeats(2, 2);
+    testIndex.update(rows.get(6));
+    assertEquals(7, testIndex.findBestRow(2).getRowNumber());
+  }
+
+  @Test
+  void countsFreeSeats() {
+    assertEquals(35, testIndex.getFreeSeats());
+    rows.get(3).reserveSeats(0, 3, "Anna");
+    testIndex.addFreeSeats(-3);
+    testIndex.update(rows.get(3));
+    assertEquals(32, testIndex.getFreeSeats());
+
+    // rows outside a theater do not report their changes, a recount picks them up
+    rows.get(3).releaseSeats(1, 4);
+    assertEquals(32, testIndex.getFreeSeats());
+    testIndex.recountFreeSeats();
+    assertEquals(34, testIndex.getFreeSeats());
+  }
+}
@@ -2,6 +2,9 @@ package TheaterReservationSystem;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -28,6 +31,183 @@ class RowTest {
     assertTrue(testRow.isWheelchairAccessible());
   }
 
+  @Test
+  void findContinuousSeats() {
+    assertEquals(0, testRow.findContinuousSeats(10));
+    testRow.get(2).reserve("Anna");
+    testRow.get(6).reserve("Ben");
+    assertEquals(0, testRow.findContinuousSeats(2));
+    assertEquals(3, testRow.findContinuousSeats(3));
+    assertEquals(Row.NO_SEATS_FOUND, testRow.findContinuousSeats(4));
+    assertEquals(Row.NO_SEATS_FOUND, testRow.findContinuousSeats(0));
+    assertEquals(Row.NO_SEATS_FOUND, testRow.findContinuousSeats(11));
+
+    testRow.get(2).notReserved();
+    assertEquals(0, testRow.findContinuousSeats(6));
+    assertFalse(testRow.hasContinuousSeats(7));
+  }
+
+  @Test
+  void reserveSeats() {
+    testRow.reserveSeats(4, 3, "Anna");
+    assertEquals("Anna", testRow.get(4).getReservedFor());
+    assertEquals("Anna", testRow.get(6).getReservedFor());
+    assertNull(testRow.get(7).getReservedFor());
+    assertEquals(0, testRow.findContinuousSeats(4));
+    assertEquals(Row.NO_SEATS_FOUND, testRow.findContinuousSeats(5));
+
+    assertThrows(IllegalArgumentException.class, () -> testRow.reserveSeats(6, 2, "Ben"));
+    assertThrows(IllegalArgumentException.class, () -> testRow.reserveSeats(8, 3, "Ben"));
+  }
+
+  @Test
+  void getLargestFreeRun() {
+    assertEquals(10, testRow.getLargestFreeRun());
+    testRow.get(3).reserve("Anna");
+    assertEquals(6, testRow.getLargestFreeRun());
+    testRow.reserveSeats(5, 5, "Ben");
+    assertEquals(3, testRow.getLargestFreeRun());
+    testRow.releaseSeats(3, 4);
+    assertEquals(7, testRow.getLargestFreeRun());
+    assertNull(testRow.get(3).getReservedFor());
+  }
+
+  @Test
+  void claimContinuousSeats() {
+    assertEquals(0, testRow.claimContinuousSeats(4, "Anna"));
+    assertEquals(4, testRow.claimContinuousSeats(4, "Ben"));
+    assertEquals(Row.NO_SEATS_FOUND, testRow.claimContinuousSeats(3, "Cleo"));
+    assertEquals(8, testRow.claimContinuousSeats(2, "Cleo"));
+    assertEquals("Ben", testRow.get(7).getReservedFor());
+    assertEquals("Cleo", testRow.get(9).getReservedFor());
+  }
+
+  @Test
+  void seatViews() {
+    Seat seat = testRow.get(3);
+    assertEquals(seat, testRow.get(3));
+    seat.reserve("Anna");
+    assertEquals("Anna", testRow.get(3).getReservedFor());
+    assertTrue(testRow.isSeatReserved(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> testRow.get(10));
+    assertThrows(UnsupportedOperationException.class, () -> testRow.add(new Seat("K", null)));
+  }
+
+  @Test
+  void wideRowSeatNames() {
+    Row arenaRow = new Row(1, 120, false);
+    assertEquals(120, arenaRow.size());
+    assertEquals("A", arenaRow.get(0).getSeatName());
+    assertEquals("Z", arenaRow.get(25).getSeatName());
+    assertEquals("AA", arenaRow.get(26).getSeatName());
+    assertEquals("DP", arenaRow.get(119).getSeatName());
+  }
+
+  @Test
+  void findContinuousSeatsInWideRow() {
+    Row arenaRow = new Row(1, 120, false);
+    assertEquals(0, arenaRow.findContinuousSeats(120));
+    arenaRow.reserveSeats(0, 60, "Anna");
+    arenaRow.reserveSeats(70, 2, "Ben");
+    // the free block crosses from the first word into the second
+    assertEquals(60, arenaRow.findContinuousSeats(10));
+    assertEquals(72, arenaRow.findContinuousSeats(11));
+    assertEquals(Row.NO_SEATS_FOUND, arenaRow.findContinuousSeats(49));
+    assertEquals(48, arenaRow.getLargestFreeRun());
+    arenaRow.releaseSeats(0, 60);
+    assertEquals(70, arenaRow.getLargestFreeRun());
+    assertEquals(0, arenaRow.findContinuousSeats(70));
+    assertEquals(Row.NO_SEATS_FOUND, arenaRow.findContinuousSeats(71));
+  }
+
+  @Test
+  void claimContinuousSeatsAcrossWords() {
+    Row arenaRow = new Row(1, 200, false);
+    arenaRow.reserveSeats(0, 1, "Anna");
+    assertEquals(1, arenaRow.claimContinuousSeats(150, "Ben"));
+    assertEquals("Ben", arenaRow.get(64).getReservedFor());
+    assertEquals("Ben", arenaRow.get(150).getReservedFor());
+    assertFalse(arenaRow.get(151).isReserved());
+    assertEquals(49, arenaRow.getLargestFreeRun());
+    assertThrows(IllegalArgumentException.class, () -> arenaRow.reserveSeats(140, 20, "Cleo"));
+    // a failed claim across words leaves nothing behind
+    assertFalse(arenaRow.get(160).isReserved());
+    assertEquals(49, arenaRow.getLargestFreeRun());
+  }
+
+  @Test
+  void placementStrategies() {
+    // free runs: A-B (2) and E-J (6)
+    testRow.reserveSeats(2, 2, "Anna");
+    assertEquals(0, testRow.findContinuousSeats(2, StandardPlacement.FIRST_FIT));
+    assertEquals(0, testRow.findContinuousSeats(2, StandardPlacement.BEST_FIT));
+    assertEquals(4, testRow.findContinuousSeats(3, StandardPlacement.BEST_FIT));
+    assertEquals(4, testRow.findContinuousSeats(2, StandardPlacement.CENTER_OF_ROW));
+    assertEquals(4, testRow.findContinuousSeats(3, StandardPlacement.CENTER_OF_ROW));
+    testRow.releaseSeats(2, 2);
+    assertEquals(4, testRow.findContinuousSeats(2, StandardPlacement.CENTER_OF_ROW));
+    assertEquals(3, testRow.findContinuousSeats(3, StandardPlacement.CENTER_OF_ROW));
+    testRow.reserveSeats(9, 1, "Ben");
+    testRow.reserveSeats(5, 1, "Cleo");
+    // free runs: A-E (5) and G-I (3), best fit closes the smaller gap
+    assertEquals(6, testRow.claimContinuousSeats(3, "Dan", StandardPlacement.BEST_FIT));
+    assertEquals("Dan", testRow.get(8).getReservedFor());
+    assertEquals(Row.NO_SEATS_FOUND, testRow.findContinuousSeats(6, StandardPlacement.BEST_FIT));
+  }
+
+  @Test
+  void bestFitMatchesSeatBySeatSearch() {
+    Random random = new Random(7);
+    for (int round = 0; round < 200; round++) {
+      Row row = new Row(1, 1 + random.nextInt(200), false);
+      boolean[] taken = new boolean[row.getNumOfSeatInARow()];
+      for (int i = 0; i < taken.length; i++) {
+        if (random.nextInt(4) == 0) {
+          taken[i] = true;
+          row.reserveSeats(i, 1, "Filler");
+        }
+      }
+      int numSeats = 1 + random.nextInt(Math.min(taken.length, 70));
+      int expected = Row.NO_SEATS_FOUND;
+      int smallest = Integer.MAX_VALUE;
+      for (int start = 0; start < taken.length; ) {
+        int end = start;
+        while (end < taken.length && !taken[end]) {
+          end++;
+        }
+        if (end - start >= numSeats && end - start < smallest) {
+          smallest = end - start;
+          expected = start;
+        }
+        start = end + 1;
+      }
+      assertEquals(expected, row.findContinuousSeats(numSeats, StandardPlacement.BEST_FIT),
+          row.getNumOfSeatInARow() + " seats, party of " + numSeats);
+    }
+  }
+
+  @Test
+  void claimContinuousSeatsConcurrently() throws InterruptedException {
+    Row wideRow = new Row(1, 26, false);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      String name = "Party" + t;
+      threads.add(new Thread(() -> {
+        while (wideRow.claimContinuousSeats(1, name) != Row.NO_SEATS_FOUND) {
+          Thread.yield();
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(0, wideRow.getLargestFreeRun());
+    for (Seat seat : wideRow) {
+      assertNotNull(seat.getReservedFor());
+    }
+  }
+
   @Test
   void testEqual() {
     Row testRow2 = new Row(2, 10, true);
@@ -51,6 +231,30 @@ class RowTest {
     assertEquals(testRow.hashCode(), testRow2.hashCode());
   }
 
+  @Test
+  void modificationStamp() {
+    Row testRow2 = new Row(2, 10, true);
+    long stamp = testRow.getModificationStamp();
+    int hash = testRow.hashCode();
+    assertEquals(hash, testRow.hashCode());
+
+    testRow.reserveSeats(0, 2, "Anna");
+    assertTrue(testRow.getModificationStamp() > stamp);
+    assertNotEquals(hash, testRow.hashCode());
+    assertNotEquals(testRow, testRow2);
+
+    stamp = testRow.getModificationStamp();
+    testRow.get(1).reserve("Ben");
+    assertTrue(testRow.getModificationStamp() > stamp);
+    testRow2.reserveSeats(0, 2, "Anna");
+    assertNotEquals(testRow, testRow2);
+
+    testRow.releaseSeats(0, 2);
+    testRow2.releaseSeats(0, 2);
+    assertEquals(testRow, testRow2);
+    assertEquals(hash, testRow.hashCode());
+  }
+
   @Test
   void testToString() {
     testRow.get(3).reserve("Anna");
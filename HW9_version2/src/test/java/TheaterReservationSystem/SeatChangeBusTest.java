@@ -0,0 +1,142 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SeatChangeBusTest {
+  private Theater theater;
+  private List<String> received;
+  private List<Boolean> endsOfBatch;
+  private long missed;
+
+  @BeforeEach
+  void setUp() throws NoAccessibleRowsException {
+    theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    received = new ArrayList<>();
+    endsOfBatch = new ArrayList<>();
+    missed = 0;
+  }
+
+  private SeatChangeHandler recorder() {
+    return new SeatChangeHandler() {
+      @Override
+      public void onSeatChange(SeatChange change, long sequence, boolean endOfBatch) {
+        received.add(sequence + " " + change.getType() + " " + change.getRowNumber() + " "
+            + change.getFirstSeat() + " " + change.getNumSeats() + " " + change.getName());
+        endsOfBatch.add(endOfBatch);
+      }
+
+      @Override
+      public void onMissed(long count) {
+        missed += count;
+      }
+    };
+  }
+
+  @Test
+  void nothingIsPublishedWithoutSubscribers() {
+    SeatChangeBus bus = new SeatChangeBus(8);
+    bus.publish(SeatChange.Type.RESERVE, theater, 7, 0, 2, "Anna");
+    assertEquals(0, bus.getPublished());
+
+    SeatChangeBus.Subscription subscription = bus.subscribe(recorder());
+    subscription.close();
+    bus.publish(SeatChange.Type.RESERVE, theater, 7, 0, 2, "Anna");
+    assertEquals(0, bus.getPublished());
+  }
+
+  @Test
+  void pollHandlesOneBatchInOrder() {
+    SeatChangeBus bus = new SeatChangeBus(8);
+    SeatChangeBus.Subscription subscription = bus.subscribe(recorder());
+    assertEquals(0, subscription.poll());
+
+    bus.publish(SeatChange.Type.HOLD, theater, 7, 0, 2, null);
+    bus.publish(SeatChange.Type.RESERVE, theater, 7, 0, 2, "Anna");
+    bus.publish(SeatChange.Type.RELEASE, theater, 7, 0, 2, "Anna");
+    assertEquals(3, subscription.poll());
+    assertEquals(List.of("0 HOLD 7 0 2 null", "1 RESERVE 7 0 2 Anna", "2 RELEASE 7 0 2 Anna"), received);
+    assertEquals(List.of(false, false, true), endsOfBatch);
+    assertEquals(0, subscription.poll());
+  }
+
+  @Test
+  void slowSubscriberSkipsOverwrittenChanges() {
+    SeatChangeBus bus = new SeatChangeBus(4);
+    SeatChangeBus.Subscription subscription = bus.subscribe(recorder());
+    for (int i = 0; i < 10; i++) {
+      bus.publish(SeatChange.Type.RESERVE, theater, 1, i, 1, "Party" + i);
+    }
+    assertEquals(4, subscription.poll());
+    assertEquals(6, missed);
+    assertEquals("6 RESERVE 1 6 1 Party6", received.get(0));
+    assertEquals("9 RESERVE 1 9 1 Party9", received.get(3));
+  }
+
+  @Test
+  void manyPublishersOneSubscriberThread() throws InterruptedException {
+    SeatChangeBus bus = new SeatChangeBus(1 << 16);
+    int publishers = 4;
+    int changesEach = 10_000;
+    int[] lastSeat = new int[publishers + 1];
+    AtomicLong handled = new AtomicLong();
+    AtomicLong outOfOrder = new AtomicLong();
+    SeatChangeBus.Subscription subscription = bus.subscribe((change, sequence, endOfBatch) -> {
+      if (change.getFirstSeat() != lastSeat[change.getRowNumber()] + 1) {
+        outOfOrder.incrementAndGet();
+      }
+      lastSeat[change.getRowNumber()] = change.getFirstSeat();
+      handled.incrementAndGet();
+    });
+    subscription.start("seat-changes");
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 1; p <= publishers; p++) {
+      int rowNumber = p;
+      threads.add(new Thread(() -> {
+        for (int i = 1; i <= changesEach; i++) {
+          bus.publish(SeatChange.Type.RESERVE, theater, rowNumber, i, 1, null);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (handled.get() < (long) publishers * changesEach && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    subscription.close();
+
+    assertEquals((long) publishers * changesEach, handled.get());
+    assertEquals(0, outOfOrder.get());
+  }
+
+  @Test
+  void reservationServicePublishesEverySeatChange() {
+    ReservationService service = new ReservationService(theater);
+    service.reserve(theater, 1, "Zoe", false);
+    assertSame(service.getSeatChanges(), service.getSeatChanges());
+    SeatChangeBus.Subscription subscription = service.getSeatChanges().subscribe(recorder());
+
+    ReservationResult anna = service.reserve(theater, 3, "Anna", false);
+    SeatHold hold = service.hold(theater, 2, false, 1, TimeUnit.MINUTES);
+    service.confirm(hold, "Ben");
+    service.release(anna);
+    service.cancel(theater, "Ben");
+    service.release(service.hold(theater, 4, false, 1, TimeUnit.MINUTES));
+    service.reserve(theater, 11, "Cleo", false);
+    subscription.poll();
+
+    assertEquals(List.of("0 RESERVE 7 1 3 Anna", "1 HOLD 7 4 2 null", "2 RESERVE 7 4 2 Ben",
+        "3 RELEASE 7 1 3 Anna", "4 RELEASE 7 4 1 Ben", "5 RELEASE 7 5 1 Ben", "6 HOLD 7 1 4 null",
+        "7 RELEASE 7 1 4 null"), received);
+  }
+}
@@ -18,6 +18,15 @@ class SeatTest {
     assertEquals("B", testSeat.getSeatName());
   }
 
+  @Test
+  void seatNames() {
+    assertEquals("AA", new Seat("AA", null).getSeatName());
+    assertEquals("120", new Seat("120", null).getSeatName());
+    assertThrows(IllegalArgumentException.class, () -> new Seat("a", null));
+    assertThrows(IllegalArgumentException.class, () -> new Seat("AAA", null));
+    assertThrows(IllegalArgumentException.class, () -> new Seat("0", null));
+  }
+
   @Test
   void getReservedFor() {
     assertEquals(null, testSeat.getReservedFor());
@@ -36,6 +45,20 @@ class SeatTest {
     assertEquals(null, testSeat.getReservedFor());
   }
 
+  @Test
+  void isReserved() {
+    assertFalse(testSeat.isReserved());
+    testSeat.reserve("Jinjing");
+    assertTrue(testSeat.isReserved());
+
+    Row row = new Row(1, 3, false);
+    row.get(1).reserve("Anna");
+    assertTrue(row.get(1).isReserved());
+    row.releaseSeats(1, 1);
+    assertFalse(row.get(1).isReserved());
+    assertNull(row.get(1).getReservedFor());
+  }
+
   @Test
   void testEquals() {
     Seat testSeat2 = new Seat("C", "Anna");
@@ -0,0 +1,143 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TheaterCodecTest {
+  private Theater theater;
+  private Path path;
+
+  @BeforeEach
+  void setUp() throws NoAccessibleRowsException, IOException {
+    theater = new Theater("Roxy", 15, 10, List.of(6, 10));
+    path = Files.createTempFile("hall", ".theater");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  @Test
+  void roundTripKeepsPartyNames() {
+    theater.getRows().get(6).reserveSeats(0, 4, "Anna");
+    theater.getRows().get(6).reserveSeats(4, 2, "Ben");
+    theater.getRows().get(6).reserveSeats(8, 2, "Anna");
+    theater.getRows().get(5).reserveSeats(3, 2, "Zoë");
+
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    TheaterCodec.encode(theater, buffer);
+    buffer.flip();
+    Theater decoded = TheaterCodec.decode(buffer);
+
+    assertFalse(buffer.hasRemaining());
+    assertEquals(theater, decoded);
+    assertEquals(theater.toString(), decoded.toString());
+    assertEquals(List.of(6, 10), decoded.getWheelchairRows());
+    assertEquals(6, decoded.findSeats("Anna").size());
+    assertEquals("Zoë", decoded.getRows().get(5).get(3).getReservedFor());
+    assertEquals(theater.getFreeSeats(false), decoded.getFreeSeats(false));
+  }
+
+  @Test
+  void heldSeatsAreEncodedAsFree() {
+    theater.getRows().get(6).reserveSeats(0, 4, "Anna");
+    new ReservationService(theater).hold(theater, 3, false, 1, TimeUnit.MINUTES);
+    assertTrue(theater.getRows().get(6).get(4).isReserved());
+
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    TheaterCodec.encode(theater, buffer);
+    buffer.flip();
+    Theater decoded = TheaterCodec.decode(buffer);
+
+    assertEquals(4, decoded.findSeats("Anna").size());
+    assertFalse(decoded.getRows().get(6).get(4).isReserved());
+    assertEquals(theater.getFreeSeats(false) + 3, decoded.getFreeSeats(false));
+  }
+
+  @Test
+  void encodingIsMuchSmallerThanTheSeatMap() throws NoAccessibleRowsException {
+    Theater hall = new Theater("Hall", 200, 26, List.of(1, 2));
+    for (Row row : hall.getRows()) {
+      row.reserveSeats(3, 20, "Hall");
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    TheaterCodec.encode(hall, buffer);
+    assertTrue(buffer.position() * 4 < hall.toString().length(), buffer.position() + " bytes");
+
+    // named parties cost their name and a few bytes for their run of seats
+    Theater booked = new Theater("Hall", 200, 26, List.of(1, 2));
+    ReservationService service = new ReservationService(booked);
+    int nameBytes = 0;
+    int parties = 0;
+    for (; service.reserve(booked, 1 + parties % 4, "Party" + parties, false).isReserved(); parties++) {
+      nameBytes += Short.BYTES + ("Party" + parties).length();
+    }
+    buffer.clear();
+    TheaterCodec.encode(booked, buffer);
+    assertTrue(buffer.position() < nameBytes + 4 * parties + booked.getTotalRows() * Long.BYTES + 64,
+        buffer.position() + " bytes");
+  }
+
+  @Test
+  void streamsThroughFileChannel() throws IOException, NoAccessibleRowsException {
+    Theater hall = new Theater("Hall", 2000, 130, List.of(1000));
+    String longName = "x".repeat(70_000 / 2) + "é".repeat(10_000);
+    for (Row row : hall.getRows()) {
+      row.reserveSeats(60, 10, "Party" + row.getRowNumber());
+    }
+    hall.getRows().get(5).reserveSeats(0, 5, longName);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      TheaterCodec.write(hall, channel);
+    }
+    assertTrue(Files.size(path) > 1 << 16);
+
+    Theater decoded;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      decoded = TheaterCodec.read(channel);
+    }
+    assertEquals(hall, decoded);
+    assertEquals(longName, decoded.getRows().get(5).get(0).getReservedFor());
+    assertEquals(10, decoded.findSeats("Party1999").size());
+  }
+
+  @Test
+  void rejectsBrokenInput() throws NoAccessibleRowsException {
+    ByteBuffer small = ByteBuffer.allocate(8);
+    assertThrows(BufferOverflowException.class, () -> TheaterCodec.encode(theater, small));
+    assertThrows(IllegalArgumentException.class, () -> TheaterCodec.decode(ByteBuffer.wrap(new byte[16])));
+
+    theater.getRows().get(6).reserveSeats(0, 4, "Anna");
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    TheaterCodec.encode(theater, buffer);
+    buffer.flip();
+    buffer.limit(buffer.limit() - 1);
+    assertThrows(IllegalArgumentException.class, () -> TheaterCodec.decode(buffer));
+
+    // a corrupt row count is caught before the rows are created
+    buffer.limit(buffer.limit() + 1);
+    buffer.putInt(Integer.BYTES + Short.BYTES + Short.BYTES + "Roxy".length(), Integer.MAX_VALUE);
+    assertThrows(IllegalArgumentException.class, () -> TheaterCodec.decode(buffer));
+
+    // so is a party number 0, which no encoder writes
+    Theater held = new Theater("Roxy", 1, 4, List.of(1));
+    held.getRows().get(0).reserveSeats(0, 4, "Anna");
+    ByteBuffer heldBuffer = ByteBuffer.allocate(64);
+    TheaterCodec.encode(held, heldBuffer);
+    heldBuffer.put(heldBuffer.position() - 2, (byte) 0);
+    heldBuffer.flip();
+    assertThrows(IllegalArgumentException.class, () -> TheaterCodec.decode(heldBuffer));
+  }
+}
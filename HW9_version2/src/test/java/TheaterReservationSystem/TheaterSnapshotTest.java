@@ -0,0 +1,152 @@
+package TheaterReservationSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TheaterSnapshotTest {
+  private Theater testTheater;
+
+  @BeforeEach
+  void setUp() throws NoAccessibleRowsException {
+    List<Integer> wheelchairRows = new ArrayList<>();
+    wheelchairRows.add(2);
+    testTheater = new Theater("Snapshot", 4, 100, wheelchairRows);
+  }
+
+  @Test
+  void snapshotIsReusedUntilSomethingChanges() {
+    TheaterSnapshot first = testTheater.snapshot();
+    assertSame(first, testTheater.snapshot());
+    assertEquals(0, first.getVersion());
+
+    testTheater.getRows().get(0).reserveSeats(3, 2, "Anna");
+    TheaterSnapshot second = testTheater.snapshot();
+    assertNotSame(first, second);
+    assertTrue(second.getVersion() > first.getVersion());
+    assertSame(second, testTheater.snapshot());
+  }
+
+  @Test
+  void snapshotDoesNotChangeAfterLaterBookings() {
+    testTheater.getRows().get(0).reserveSeats(60, 10, "Anna");
+    TheaterSnapshot snapshot = testTheater.snapshot();
+    String seatMap = snapshot.toString();
+
+    testTheater.getRows().get(0).releaseSeats(60, 10);
+    testTheater.getRows().get(2).reserveSeats(0, 5, "Ben");
+
+    assertTrue(snapshot.isSeatReserved(1, 60));
+    assertTrue(snapshot.isSeatReserved(1, 69));
+    assertFalse(snapshot.isSeatReserved(3, 0));
+    assertEquals(10, snapshot.getReservedSeats(1));
+    assertEquals(seatMap, snapshot.toString());
+    assertFalse(testTheater.snapshot().isSeatReserved(1, 60));
+    assertEquals(5, testTheater.snapshot().getReservedSeats(3));
+  }
+
+  @Test
+  void seatMapMatchesTheater() throws IOException {
+    testTheater.getRows().get(1).reserveSeats(0, 3, "Anna");
+    TheaterSnapshot snapshot = testTheater.snapshot();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    snapshot.writeSeatMap(out);
+
+    assertEquals(testTheater.toString(), out.toString(StandardCharsets.US_ASCII.name()));
+    assertEquals(testTheater.toString(), snapshot.toString());
+    assertEquals("Snapshot", snapshot.getName());
+    assertEquals(4, snapshot.getTotalRows());
+  }
+
+  @Test
+  void changeDuringAWideChangeIsInTheNextSnapshot() throws NoAccessibleRowsException, InterruptedException {
+    AtomicReference<Runnable> duringWideChange = new AtomicReference<>();
+    // runs the hook once, when a block spanning two words sets its second word
+    OccupancyStore store = new HeapOccupancyStore(Theater.wordsFor(4, 100)) {
+      @Override
+      public boolean compareAndSetWord(int index, long expected, long updated) {
+        Runnable hook = index == 1 ? duringWideChange.getAndSet(null) : null;
+        if (hook != null) {
+          hook.run();
+        }
+        return super.compareAndSetWord(index, expected, updated);
+      }
+    };
+    Theater theater = new Theater("Snapshot", 4, 100, List.of(2), store);
+    Row row = theater.getRows().get(0);
+    AtomicReference<TheaterSnapshot> taken = new AtomicReference<>();
+    Thread reader = new Thread(() -> taken.set(theater.snapshot()));
+    duringWideChange.set(() -> {
+      row.reserveSeats(3, 1, "Ben");
+      reader.start();
+      try {
+        reader.join(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    row.reserveSeats(60, 10, "Anna");
+    reader.join();
+
+    // the reader started after Ben's seat was committed, so its snapshot must hold it
+    assertTrue(taken.get().isSeatReserved(1, 3));
+    assertTrue(theater.snapshot().isSeatReserved(1, 3));
+    assertEquals(11, theater.snapshot().getReservedSeats(1));
+  }
+
+  @Test
+  void readersNeverSeeHalfAChange() throws InterruptedException {
+    Row first = testTheater.getRows().get(0);
+    Row last = testTheater.getRows().get(3);
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<String> failure = new AtomicReference<>();
+
+    // the booker always reserves the first row before the last and releases the last row first,
+    // and every block spans two words of its row
+    Thread booker = new Thread(() -> {
+      while (running.get()) {
+        first.reserveSeats(60, 10, "Anna");
+        last.reserveSeats(60, 10, "Ben");
+        last.releaseSeats(60, 10);
+        first.releaseSeats(60, 10);
+      }
+    });
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      readers.add(new Thread(() -> {
+        long version = -1;
+        for (int read = 0; read < 20_000 && failure.get() == null; read++) {
+          TheaterSnapshot snapshot = testTheater.snapshot();
+          int firstReserved = snapshot.getReservedSeats(1);
+          int lastReserved = snapshot.getReservedSeats(4);
+          if (firstReserved % 10 != 0 || lastReserved % 10 != 0) {
+            failure.set("half a block in " + snapshot);
+          } else if (lastReserved > firstReserved) {
+            failure.set("last row booked before the first in " + snapshot);
+          } else if (snapshot.getVersion() < version) {
+            failure.set("version went back from " + version + " to " + snapshot.getVersion());
+          }
+          version = snapshot.getVersion();
+        }
+      }));
+    }
+    booker.start();
+    readers.forEach(Thread::start);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    running.set(false);
+    booker.join();
+
+    assertNull(failure.get());
+  }
+}
@@ -2,6 +2,10 @@ package TheaterReservationSystem;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,6 +70,33 @@ class TheaterTest {
     assertEquals(expected, actual);
   }
 
+  @Test
+  void findBestRow() {
+    assertEquals(4, testTheater.findBestRow(10, false).getRowNumber());
+    assertEquals(2, testTheater.findBestRow(10, true).getRowNumber());
+
+    testTheater.getRows().get(3).reserveSeats(0, 10, "Anna");
+    assertEquals(3, testTheater.findBestRow(10, false).getRowNumber());
+
+    testTheater.getRows().get(1).get(5).reserve("Ben");
+    assertNull(testTheater.findBestRow(6, true));
+    assertEquals(2, testTheater.findBestRow(5, true).getRowNumber());
+  }
+
+  @Test
+  void wideRows() throws NoAccessibleRowsException {
+    Theater arena = new Theater("Arena", 20, 120, List.of(1));
+    assertEquals(120, arena.getRows().get(0).size());
+    Row bestRow = arena.findBestRow(100, false);
+    assertEquals(10, bestRow.getRowNumber());
+    bestRow.claimContinuousSeats(100, "Anna");
+    assertEquals(9, arena.findBestRow(100, false).getRowNumber());
+    assertEquals(10, arena.findBestRow(20, false).getRowNumber());
+    assertTrue(arena.getRows().get(9).get(99).isReserved());
+    assertFalse(arena.getRows().get(9).get(100).isReserved());
+    assertThrows(IllegalArgumentException.class, () -> new Theater("Arena", 20, 703, List.of(1)));
+  }
+
   @Test
   void testEquals() throws NoAccessibleRowsException {
     List<Integer> wheelchairRows = new ArrayList<>();
@@ -87,6 +118,24 @@ class TheaterTest {
     assertEquals(testTheater.hashCode(), testTheater2.hashCode());
   }
 
+  @Test
+  void modificationStamp() throws NoAccessibleRowsException {
+    Theater testTheater2 = new Theater("Sydney Opera", 8, 10, List.of(2));
+    long stamp = testTheater.getModificationStamp();
+    int hash = testTheater.hashCode();
+    assertEquals(hash, testTheater.hashCode());
+
+    testTheater.getRows().get(3).reserveSeats(2, 3, "Anna");
+    assertTrue(testTheater.getModificationStamp() > stamp);
+    assertNotEquals(hash, testTheater.hashCode());
+    assertNotEquals(testTheater, testTheater2);
+
+    testTheater2.getRows().get(3).reserveSeats(2, 3, "Anna");
+    assertEquals(testTheater, testTheater2);
+    assertEquals(testTheater.hashCode(), testTheater2.hashCode());
+    assertEquals(testTheater.getModificationStamp(), testTheater.snapshot().getVersion());
+  }
+
   @Test
   void testToString() {
     String expectedString = " 1 _ _ _ _ _ _ _ _ _ _ \n" +
@@ -99,4 +148,51 @@ class TheaterTest {
         " 8 _ _ _ _ _ _ _ _ _ _ \n";
     assertEquals(expectedString, testTheater.toString());
   }
-}
\ No newline at end of file
+
+  @Test
+  void writeSeatMap() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    testTheater.writeSeatMap(out);
+    assertEquals(testTheater.toString(), out.toString(StandardCharsets.US_ASCII));
+
+    testTheater.getRows().get(4).get(2).reserve("Anna");
+    ByteBuffer buffer = ByteBuffer.allocate(256);
+    testTheater.writeSeatMap(buffer);
+    String seatMap = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+    assertTrue(seatMap.contains(" 5 _ _ X _ _ _ _ _ _ _ \n"));
+    assertTrue(seatMap.contains(" 4 _ _ _ _ _ _ _ _ _ _ \n"));
+    assertEquals(testTheater.toString(), seatMap);
+
+    testTheater.getRows().get(4).get(2).notReserved();
+    assertTrue(testTheater.toString().contains(" 5 _ _ _ _ _ _ _ _ _ _ \n"));
+  }
+
+  @Test
+  void availabilityPerAccessibilityClass() {
+    assertEquals(70, testTheater.getFreeSeats(false));
+    assertEquals(10, testTheater.getFreeSeats(true));
+    assertTrue(testTheater.hasContinuousSeats(10));
+
+    for (Row row : testTheater.getRows()) {
+      if (!row.isWheelchairAccessible()) {
+        row.reserveSeats(0, 8, "Anna");
+      }
+    }
+    testTheater.getRows().get(1).reserveSeats(0, 5, "Ben");
+    assertEquals(14, testTheater.getFreeSeats(false));
+    assertEquals(2, testTheater.getLargestFreeRun(false));
+    assertEquals(5, testTheater.getFreeSeats(true));
+    assertEquals(5, testTheater.getLargestFreeRun(true));
+    assertTrue(testTheater.hasContinuousSeats(5));
+    assertFalse(testTheater.hasContinuousSeats(6));
+
+    testTheater.getRows().get(4).releaseSeats(0, 8);
+    assertEquals(22, testTheater.getFreeSeats(false));
+    assertTrue(testTheater.hasContinuousSeats(10));
+
+    // only the seats that were taken count as freed
+    testTheater.getRows().get(0).releaseSeats(6, 4);
+    testTheater.getRows().get(0).releaseSeats(6, 4);
+    assertEquals(24, testTheater.getFreeSeats(false));
+  }
+}